@@ -8,12 +8,36 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
  * @author Christian Wesseler
  */
 public class BenchmarkRunner {
+    private static final int[] THREAD_COUNTS = {1, 4, 16, 32};
+
     public static void main(String[] args) throws Exception {
         Options opt = new OptionsBuilder()
                 .include(CollectionContains.class.getSimpleName())
+                .include(FilterContains.class.getSimpleName())
+                .include(OrderedContains.class.getSimpleName())
                 .forks(1)
                 .build();
 
         new Runner(opt).run();
+
+        // The thread options apply to every included benchmark, so the group and the mixed benchmark run apart.
+        String concurrent = ConcurrentContains.class.getSimpleName();
+        for (int threads : THREAD_COUNTS) {
+            Options mixed = new OptionsBuilder()
+                    .include(concurrent + ".mixed")
+                    .threads(threads)
+                    .forks(1)
+                    .build();
+
+            new Runner(mixed).run();
+
+            Options readWrite = new OptionsBuilder()
+                    .include(concurrent + ".readWrite")
+                    .threadGroups(Math.max(threads - 1, 1), 1)
+                    .forks(1)
+                    .build();
+
+            new Runner(readWrite).run();
+        }
     }
 }
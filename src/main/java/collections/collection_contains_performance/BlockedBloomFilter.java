@@ -0,0 +1,64 @@
+package collections.collection_contains_performance;
+
+/**
+ * Bloom filter split into 512-bit blocks (one cache line each). The key hash picks a block and all k bits are set
+ * within it, so a lookup touches a single cache line, at the cost of a somewhat higher false positive rate than a
+ * classic Bloom filter of the same size.
+ */
+public final class BlockedBloomFilter implements MembershipFilter {
+    private static final int LONGS_PER_BLOCK = 8;
+    private static final int BLOCK_BIT_MASK = LONGS_PER_BLOCK * Long.SIZE - 1;
+
+    private final long[] blocks;
+    private final int numBlocks;
+    private final int numHashes;
+
+    /**
+     * @param expectedKeys Number of keys that will be added.
+     * @param bitsPerKey Memory budget per key; 10 gives roughly a 1% false positive rate.
+     */
+    public BlockedBloomFilter(int expectedKeys, int bitsPerKey) {
+        long bitsNeeded = (long) Math.max(1, expectedKeys) * bitsPerKey;
+        numBlocks = (int) Math.max(1, (bitsNeeded + BLOCK_BIT_MASK) / (BLOCK_BIT_MASK + 1));
+        blocks = new long[numBlocks * LONGS_PER_BLOCK];
+        numHashes = Math.max(1, (int) Math.round(bitsPerKey * Math.log(2)));
+    }
+
+    public void add(long hash) {
+        int block = block(hash);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 16) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (h1 + i * h2) & BLOCK_BIT_MASK;
+            blocks[block + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public void add(CharSequence key) {
+        add(MembershipFilter.hash64(key));
+    }
+
+    @Override
+    public boolean mightContain(long hash) {
+        int block = block(hash);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 16) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (h1 + i * h2) & BLOCK_BIT_MASK;
+            if ((blocks[block + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long bitCount() {
+        return (long) blocks.length * Long.SIZE;
+    }
+
+    private int block(long hash) {
+        // Multiply-shift maps the high 32 bits onto [0, numBlocks) without a division.
+        return (int) (((hash >>> 32) * numBlocks) >>> 32) * LONGS_PER_BLOCK;
+    }
+}
@@ -0,0 +1,54 @@
+package collections.collection_contains_performance;
+
+/**
+ * Classic Bloom filter: k bit positions per key across one large bit array, derived from the key hash by double
+ * hashing. Each lookup touches up to k random cache lines.
+ */
+public final class BloomFilter implements MembershipFilter {
+    private final long[] bits;
+    private final long bitSize;
+    private final int numHashes;
+
+    /**
+     * @param expectedKeys Number of keys that will be added.
+     * @param falsePositiveRate Target false positive rate at that number of keys, ie 0.01.
+     */
+    public BloomFilter(int expectedKeys, double falsePositiveRate) {
+        long n = Math.max(1, expectedKeys);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bits = new long[(int) ((m + 63) >>> 6)];
+        bitSize = (long) bits.length << 6;
+        numHashes = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    public void add(long hash) {
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public void add(CharSequence key) {
+        add(MembershipFilter.hash64(key));
+    }
+
+    @Override
+    public boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long bitCount() {
+        return bitSize;
+    }
+}
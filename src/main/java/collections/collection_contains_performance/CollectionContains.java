@@ -3,7 +3,10 @@ package collections.collection_contains_performance;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
 
+import java.lang.management.ManagementFactory;
 import java.util.*;
 
 /**
@@ -11,11 +14,18 @@ import java.util.*;
  * <p>
  * Best performance: HashSet
  *
+ * Notes:
+ * The large set benchmarks compare HashSet against LongHashSet and OffHeapStringSet, which hold the same elements
+ * without per-entry objects. Each of them builds only its own set, so a large trial holds one set at a time, and
+ * reports the set's footprint as a secondary result (footprintBytes): the heap growth after a GC for the HashSets,
+ * including the elements, and footprintBytes() for the primitive and off-heap sets.
+ *
  * @author Christian Wesseler
  */
 public class CollectionContains {
     private static final int STRING_SIZE = 5;
     private static final String toFind = "FINDME";
+    private static final long longToFind = 1234567890123L;
 
     /**
      * Configures and generates varying numbers of randomly generated strings.
@@ -52,6 +62,188 @@ public class CollectionContains {
         }
     }
 
+    /**
+     * Configures and generates a large HashSet of random strings.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class LargeStringData {
+        @Param({"1000", "100000", "10000000"})
+        private int numElements;
+
+        Set<String> hashSet;
+        public long footprintBytes;
+        private Footprint footprint;
+
+        /**
+         * Generates the set. The strings only depend on numElements, so they match those of the off-heap set.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            long before = usedHeapAfterGc();
+            Random random = new Random(numElements);
+            hashSet = new HashSet<>(numElements);
+            for (int i = 0; i < numElements; i++) {
+                hashSet.add(randomString(random));
+            }
+            hashSet.add(toFind);
+            footprint = new Footprint(usedHeapAfterGc() - before);
+        }
+
+        /**
+         * Reports the footprint measured at setup.
+         */
+        @TearDown(Level.Iteration)
+        public void reportFootprint(IterationParams params) {
+            footprintBytes = footprint.report(params);
+        }
+    }
+
+    /**
+     * Configures and generates a large OffHeapStringSet of random strings.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class LargeOffHeapData {
+        @Param({"1000", "100000", "10000000"})
+        private int numElements;
+
+        OffHeapStringSet offHeapStringSet;
+        public long footprintBytes;
+        private Footprint footprint;
+
+        /**
+         * Generates the same strings as {@link LargeStringData} straight into the off-heap set.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(numElements);
+            offHeapStringSet = new OffHeapStringSet(numElements + 1);
+            for (int i = 0; i < numElements; i++) {
+                offHeapStringSet.add(randomString(random));
+            }
+            offHeapStringSet.add(toFind);
+            footprint = new Footprint(offHeapStringSet.footprintBytes());
+        }
+
+        /**
+         * Reports the footprint measured at setup.
+         */
+        @TearDown(Level.Iteration)
+        public void reportFootprint(IterationParams params) {
+            footprintBytes = footprint.report(params);
+        }
+    }
+
+    /**
+     * Configures and generates a large HashSet of random boxed longs.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class LargeBoxedLongData {
+        @Param({"1000", "100000", "10000000"})
+        private int numElements;
+
+        Set<Long> boxedLongSet;
+        // Boxed once, so the boxed benchmark measures the lookup and not Long.valueOf.
+        Long boxedLongToFind = longToFind;
+
+        public long footprintBytes;
+        private Footprint footprint;
+
+        /**
+         * Generates the set. The values only depend on numElements, so they match those of the primitive set.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            long before = usedHeapAfterGc();
+            Random random = new Random(numElements);
+            boxedLongSet = new HashSet<>(numElements);
+            for (int i = 0; i < numElements; i++) {
+                boxedLongSet.add(random.nextLong());
+            }
+            boxedLongSet.add(longToFind);
+            footprint = new Footprint(usedHeapAfterGc() - before);
+        }
+
+        /**
+         * Reports the footprint measured at setup.
+         */
+        @TearDown(Level.Iteration)
+        public void reportFootprint(IterationParams params) {
+            footprintBytes = footprint.report(params);
+        }
+    }
+
+    /**
+     * Configures and generates a large LongHashSet of random longs.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class LargeLongData {
+        @Param({"1000", "100000", "10000000"})
+        private int numElements;
+
+        LongHashSet longHashSet;
+        public long footprintBytes;
+        private Footprint footprint;
+
+        /**
+         * Generates the same values as {@link LargeBoxedLongData} straight into the primitive set.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(numElements);
+            longHashSet = new LongHashSet(numElements + 1);
+            for (int i = 0; i < numElements; i++) {
+                longHashSet.add(random.nextLong());
+            }
+            longHashSet.add(longToFind);
+            footprint = new Footprint(longHashSet.footprintBytes());
+        }
+
+        /**
+         * Reports the footprint measured at setup.
+         */
+        @TearDown(Level.Iteration)
+        public void reportFootprint(IterationParams params) {
+            footprintBytes = footprint.report(params);
+        }
+    }
+
+    /**
+     * A set's footprint, handed to its aux counter in the first measurement iteration only: JMH adds up event counters
+     * over all iterations, so reporting it every time would multiply it by the iteration count.
+     */
+    private static final class Footprint {
+        private final long bytes;
+        private boolean reported;
+
+        Footprint(long bytes) {
+            this.bytes = bytes;
+        }
+
+        long report(IterationParams params) {
+            if (reported || params.getType() != IterationType.MEASUREMENT) {
+                return 0;
+            }
+            reported = true;
+            return bytes;
+        }
+    }
+
+    private static String randomString(Random random) {
+        return RandomStringUtils.random(STRING_SIZE, 0, 0, false, false, null, random);
+    }
+
+    /**
+     * Heap in use once a full GC has run, so that the difference of two calls around building a set is the set.
+     */
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
     /**
      * @param data The provided state for the current benchmark run.
      * @param blackhole The method's consumer to prevent automatic optimization.
@@ -123,4 +315,52 @@ public class CollectionContains {
     public static void TreeSetContains(Data data, Blackhole blackhole) {
         blackhole.consume(data.treeSet.contains(toFind));
     }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void LargeHashSetContains(LargeStringData data, Blackhole blackhole) {
+        blackhole.consume(data.hashSet.contains(toFind));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void OffHeapStringSetContains(LargeOffHeapData data, Blackhole blackhole) {
+        blackhole.consume(data.offHeapStringSet.contains(toFind));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void BoxedLongHashSetContains(LargeBoxedLongData data, Blackhole blackhole) {
+        blackhole.consume(data.boxedLongSet.contains(data.boxedLongToFind));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void LongHashSetContains(LargeLongData data, Blackhole blackhole) {
+        blackhole.consume(data.longHashSet.contains(longToFind));
+    }
 }
@@ -0,0 +1,186 @@
+package collections.collection_contains_performance;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A comparison of thread-safe sets under concurrent contains calls while other threads add and remove keys.
+ * <p>
+ * Notes:
+ * The readWrite group runs reader threads against one writer thread that adds and removes keys non-stop, and the
+ * mixed benchmark runs threads that each write writePercent of the time. Collections.synchronizedSet serializes
+ * every call, while CopyOnWriteHashSet copies its table on every write. The BenchmarkRunner sweeps 1, 4, 16 and 32
+ * threads, with one writer and the rest readers in the group (two threads for a count of one). Run on their own,
+ * the group defaults to three readers per writer and mixed to four threads; JMH's -tg and -t options change that,
+ * but -tg must only be given together with "ConcurrentContains.readWrite". Half of the keys are loaded at setup
+ * and the other half are churned by writers, so reads are a mix of hits and misses.
+ *
+ * @author Christian Wesseler
+ */
+public class ConcurrentContains {
+    private static final int STRING_SIZE = 5;
+    private static final int NUM_PROBES = 1 << 16;
+    private static final AtomicInteger THREAD_SEEDS = new AtomicInteger();
+
+    /**
+     * Configures the set implementation and generates its keys.
+     */
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"concurrentHashMap", "synchronized", "copyOnWrite", "striped", "lockFree"})
+        private String setName;
+
+        @Param({"1000", "100000"})
+        private int numElements;
+
+        Set<String> set;
+        // The first numElements keys are loaded at setup, the rest are only ever added and removed by writers.
+        String[] keys;
+
+        /**
+         * Generates distinct random keys and loads the first half into the set.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            Set<String> unique = new HashSet<>(numElements * 2);
+            while (unique.size() < numElements * 2) {
+                unique.add(RandomStringUtils.random(STRING_SIZE));
+            }
+            keys = unique.toArray(new String[0]);
+            set = create(setName, Arrays.asList(keys).subList(0, numElements), keys.length);
+        }
+
+        String churnKey(int index) {
+            return keys[numElements + index % numElements];
+        }
+
+        private static Set<String> create(String name, List<String> initial, int capacity) {
+            Set<String> set;
+            switch (name) {
+                case "concurrentHashMap":
+                    set = ConcurrentHashMap.newKeySet(capacity);
+                    break;
+                case "synchronized":
+                    set = Collections.synchronizedSet(new HashSet<>(capacity));
+                    break;
+                case "copyOnWrite":
+                    return new CopyOnWriteHashSet<>(initial);
+                case "striped":
+                    set = new StripedLockSet<>(64);
+                    break;
+                case "lockFree":
+                    set = new LockFreeHashSet<>(capacity);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown set: " + name);
+            }
+            set.addAll(initial);
+            return set;
+        }
+    }
+
+    /**
+     * Configures the share of operations that write in the mixed benchmark.
+     */
+    @State(Scope.Benchmark)
+    public static class MixData {
+        @Param({"0", "1", "10", "50"})
+        private int writePercent;
+    }
+
+    /**
+     * Pre-generated key indexes and dice rolls per thread, so threads don't share a random number generator.
+     */
+    @State(Scope.Thread)
+    public static class ThreadData {
+        int[] indexes = new int[NUM_PROBES];
+        int[] rolls = new int[NUM_PROBES];
+        private int cursor;
+
+        /**
+         * Generates this thread's probe sequence with its own seed.
+         */
+        @Setup(Level.Trial)
+        public void setUp(Data data) {
+            SplittableRandom random = new SplittableRandom(THREAD_SEEDS.incrementAndGet());
+            for (int i = 0; i < NUM_PROBES; i++) {
+                indexes[i] = random.nextInt(data.keys.length);
+                rolls[i] = random.nextInt(100);
+            }
+        }
+
+        int next() {
+            cursor = (cursor + 1) & (NUM_PROBES - 1);
+            return cursor;
+        }
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param threadData The current thread's probe sequence.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void reader(Data data, ThreadData threadData, Blackhole blackhole) {
+        blackhole.consume(data.set.contains(data.keys[threadData.indexes[threadData.next()]]));
+    }
+
+    /**
+     * Alternately adds and removes churn keys.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param threadData The current thread's probe sequence.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void writer(Data data, ThreadData threadData, Blackhole blackhole) {
+        int i = threadData.next();
+        String key = data.churnKey(threadData.indexes[i]);
+        blackhole.consume((i & 1) == 0 ? data.set.add(key) : data.set.remove(key));
+    }
+
+    /**
+     * Every thread reads, and writes writePercent of the time.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param mixData The write ratio for the current benchmark run.
+     * @param threadData The current thread's probe sequence.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Threads(4)
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void mixed(Data data, MixData mixData, ThreadData threadData, Blackhole blackhole) {
+        int i = threadData.next();
+        int index = threadData.indexes[i];
+        int roll = threadData.rolls[i];
+        if (roll < mixData.writePercent) {
+            String key = data.churnKey(index);
+            blackhole.consume((roll & 1) == 0 ? data.set.add(key) : data.set.remove(key));
+        } else {
+            blackhole.consume(data.set.contains(data.keys[index]));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package collections.collection_contains_performance;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * A thread-safe set that publishes an immutable HashSet snapshot through a volatile field.
+ * <p>
+ * Reads are a volatile load plus a plain HashSet lookup, with no locking at all. Every write copies the whole set, so
+ * this only pays off when writes are rare. Unlike CopyOnWriteArraySet, contains is a hash lookup, not a linear scan.
+ */
+public final class CopyOnWriteHashSet<E> extends AbstractSet<E> {
+    private volatile Set<E> snapshot = Collections.emptySet();
+
+    public CopyOnWriteHashSet() {
+    }
+
+    public CopyOnWriteHashSet(Collection<? extends E> elements) {
+        snapshot = Collections.unmodifiableSet(new HashSet<>(elements));
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return snapshot.contains(o);
+    }
+
+    @Override
+    public synchronized boolean add(E e) {
+        if (snapshot.contains(e)) {
+            return false;
+        }
+        Set<E> copy = new HashSet<>(snapshot);
+        copy.add(e);
+        snapshot = Collections.unmodifiableSet(copy);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+        if (!snapshot.contains(o)) {
+            return false;
+        }
+        Set<E> copy = new HashSet<>(snapshot);
+        copy.remove(o);
+        snapshot = Collections.unmodifiableSet(copy);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * @return An iterator over the snapshot current at the time of the call.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return snapshot.iterator();
+    }
+}
@@ -0,0 +1,163 @@
+package collections.collection_contains_performance;
+
+import java.util.Random;
+
+/**
+ * Cuckoo filter with 16-bit fingerprints in buckets of four, each bucket packed into one long.
+ * <p>
+ * A key's fingerprint lives in one of two candidate buckets, the second derived from the first and the fingerprint
+ * (partial-key cuckoo hashing), so a lookup reads at most two longs. Unlike Bloom filters, keys can be removed; only
+ * remove keys that were added, since removing any other key may drop the fingerprint of a key that shares it.
+ */
+public final class CuckooFilter implements MembershipFilter {
+    private static final int SLOTS_PER_BUCKET = 4;
+    private static final int MAX_KICKS = 500;
+    private static final double MAX_LOAD = 0.95;
+    private static final long LOW_BITS = 0x0001000100010001L;
+    private static final long HIGH_BITS = 0x8000800080008000L;
+
+    private final long[] buckets;
+    private final int mask;
+    private final Random random = new Random(42);
+    private int size;
+    // A fingerprint that couldn't be placed after MAX_KICKS; once set, the filter is full.
+    private int victimFingerprint;
+    private int victimBucket;
+
+    public CuckooFilter(int expectedKeys) {
+        long needed = (long) Math.ceil(Math.max(1, expectedKeys) / (SLOTS_PER_BUCKET * MAX_LOAD));
+        if (needed > 1 << 30) {
+            throw new IllegalArgumentException("Too many keys: " + expectedKeys);
+        }
+        int numBuckets = Integer.highestOneBit((int) Math.max(1, needed * 2 - 1));
+        buckets = new long[numBuckets];
+        mask = numBuckets - 1;
+    }
+
+    /**
+     * @return false if the filter is full and the key could not be added.
+     */
+    public boolean add(long hash) {
+        if (victimFingerprint != 0) {
+            return false;
+        }
+        place((int) hash & mask, fingerprint(hash));
+        size++;
+        return true;
+    }
+
+    public boolean add(CharSequence key) {
+        return add(MembershipFilter.hash64(key));
+    }
+
+    /**
+     * Removes one copy of the key's fingerprint. If the filter was full, the fingerprint that couldn't be placed gets
+     * another try, so the filter accepts keys again once that succeeds.
+     *
+     * @return false if no matching fingerprint was found.
+     */
+    public boolean remove(long hash) {
+        int fingerprint = fingerprint(hash);
+        int i1 = (int) hash & mask;
+        int i2 = alternate(i1, fingerprint);
+        if (victimFingerprint == fingerprint && (victimBucket == i1 || victimBucket == i2)) {
+            victimFingerprint = 0;
+        } else if (!delete(i1, fingerprint) && !delete(i2, fingerprint)) {
+            return false;
+        }
+        size--;
+        if (victimFingerprint != 0) {
+            int fingerprintToPlace = victimFingerprint;
+            victimFingerprint = 0;
+            place(victimBucket, fingerprintToPlace);
+        }
+        return true;
+    }
+
+    public boolean remove(CharSequence key) {
+        return remove(MembershipFilter.hash64(key));
+    }
+
+    @Override
+    public boolean mightContain(long hash) {
+        int fingerprint = fingerprint(hash);
+        int i1 = (int) hash & mask;
+        int i2 = alternate(i1, fingerprint);
+        long pattern = fingerprint * LOW_BITS;
+        if (hasZeroLane(buckets[i1] ^ pattern) || hasZeroLane(buckets[i2] ^ pattern)) {
+            return true;
+        }
+        return victimFingerprint == fingerprint && (victimBucket == i1 || victimBucket == i2);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long bitCount() {
+        return (long) buckets.length * Long.SIZE;
+    }
+
+    /**
+     * Puts the fingerprint into one of its two buckets, relocating other fingerprints if both are full. A fingerprint
+     * still homeless after MAX_KICKS relocations becomes the victim.
+     */
+    private void place(int i1, int fingerprint) {
+        if (insert(i1, fingerprint) || insert(alternate(i1, fingerprint), fingerprint)) {
+            return;
+        }
+        int bucket = random.nextBoolean() ? i1 : alternate(i1, fingerprint);
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            int shift = random.nextInt(SLOTS_PER_BUCKET) * 16;
+            int evicted = (int) (buckets[bucket] >>> shift) & 0xFFFF;
+            buckets[bucket] = (buckets[bucket] & ~(0xFFFFL << shift)) | ((long) fingerprint << shift);
+            fingerprint = evicted;
+            bucket = alternate(bucket, fingerprint);
+            if (insert(bucket, fingerprint)) {
+                return;
+            }
+        }
+        victimFingerprint = fingerprint;
+        victimBucket = bucket;
+    }
+
+    private boolean insert(int bucket, int fingerprint) {
+        long value = buckets[bucket];
+        for (int shift = 0; shift < Long.SIZE; shift += 16) {
+            if (((value >>> shift) & 0xFFFF) == 0) {
+                buckets[bucket] = value | ((long) fingerprint << shift);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean delete(int bucket, int fingerprint) {
+        long value = buckets[bucket];
+        for (int shift = 0; shift < Long.SIZE; shift += 16) {
+            if (((value >>> shift) & 0xFFFF) == fingerprint) {
+                buckets[bucket] = value & ~(0xFFFFL << shift);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int alternate(int bucket, int fingerprint) {
+        return (bucket ^ (fingerprint * 0x5BD1E995)) & mask;
+    }
+
+    private static int fingerprint(long hash) {
+        int fingerprint = (int) (hash >>> 48);
+        // Zero marks an empty slot.
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    /**
+     * Whether any of the four 16-bit lanes is zero.
+     */
+    private static boolean hasZeroLane(long value) {
+        return ((value - LOW_BITS) & ~value & HIGH_BITS) != 0;
+    }
+}
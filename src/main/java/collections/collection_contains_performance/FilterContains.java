@@ -0,0 +1,254 @@
+package collections.collection_contains_performance;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A comparison of approximate membership filters (Bloom, blocked Bloom, cuckoo, xor) against HashSet.contains, on
+ * their own and as a negative-lookup front for the HashSet, for both present and absent keys.
+ * <p>
+ * Notes:
+ * A hit through a filtered set pays for the filter and the set, a miss only for the filter unless it is a false
+ * positive; comparing Hit, Miss and their filtered variants per set size shows where a filter front pays off. Each invocation takes the next key from a pre-generated array of hits or misses, so results depend on the set
+ * size and not on one cached key. String.hashCode is cached in the String while the filters hash the chars on every
+ * call; the prehashed benchmark shows the filter lookup on its own. FilterMiss reports the filter's false positive
+ * rate on the miss probes and its bits per key as secondary results.
+ *
+ * @author Christian Wesseler
+ */
+public class FilterContains {
+    private static final int STRING_SIZE = 5;
+    private static final int NUM_PROBES = 1 << 16;
+
+    /**
+     * Configures and generates the exact set and the hit and miss probes. Runs are single-threaded, so the probe
+     * index is shared state.
+     */
+    @State(Scope.Benchmark)
+    public static class SetData {
+        @Param({"1000", "100000", "10000000"})
+        private int numElements;
+
+        Set<String> hashSet;
+        long[] keyHashes;
+        String[] hits = new String[NUM_PROBES];
+        String[] misses = new String[NUM_PROBES];
+        long[] missHashes = new long[NUM_PROBES];
+        private int index;
+
+        /**
+         * Generates the set, then draws probes from its keys (hits) and from fresh strings not in it (misses).
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            hashSet = new HashSet<>(numElements);
+            while (hashSet.size() < numElements) {
+                hashSet.add(RandomStringUtils.random(STRING_SIZE));
+            }
+            String[] keys = hashSet.toArray(new String[0]);
+            keyHashes = new long[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                keyHashes[i] = MembershipFilter.hash64(keys[i]);
+            }
+
+            Random random = new Random(numElements);
+            for (int i = 0; i < NUM_PROBES; i++) {
+                hits[i] = keys[random.nextInt(keys.length)];
+                misses[i] = randomMiss();
+                missHashes[i] = MembershipFilter.hash64(misses[i]);
+            }
+        }
+
+        String randomMiss() {
+            String candidate;
+            do {
+                candidate = RandomStringUtils.random(STRING_SIZE);
+            } while (hashSet.contains(candidate));
+            return candidate;
+        }
+
+        int next() {
+            index = (index + 1) & (NUM_PROBES - 1);
+            return index;
+        }
+    }
+
+    /**
+     * Configures the filter type and builds it, alone and in front of the exact set.
+     */
+    @State(Scope.Benchmark)
+    public static class FilterData {
+        @Param({"bloom", "blocked", "cuckoo", "xor"})
+        private String filterName;
+
+        MembershipFilter filter;
+        FilteredSet filteredSet;
+        double falsePositiveRate;
+        double bitsPerKey;
+
+        /**
+         * Builds the filter from the set's keys, and measures its false positive rate on the miss probes.
+         */
+        @Setup(Level.Trial)
+        public void setUp(SetData data) {
+            filter = build(filterName, data.keyHashes);
+            filteredSet = new FilteredSet(filter, data.hashSet);
+
+            int falsePositives = 0;
+            for (long hash : data.missHashes) {
+                if (filter.mightContain(hash)) {
+                    falsePositives++;
+                }
+            }
+            falsePositiveRate = (double) falsePositives / data.missHashes.length;
+            bitsPerKey = (double) filter.bitCount() / data.keyHashes.length;
+        }
+
+        private static MembershipFilter build(String name, long[] keyHashes) {
+            switch (name) {
+                case "bloom":
+                    BloomFilter bloom = new BloomFilter(keyHashes.length, 0.01);
+                    for (long hash : keyHashes) {
+                        bloom.add(hash);
+                    }
+                    return bloom;
+                case "blocked":
+                    BlockedBloomFilter blocked = new BlockedBloomFilter(keyHashes.length, 10);
+                    for (long hash : keyHashes) {
+                        blocked.add(hash);
+                    }
+                    return blocked;
+                case "cuckoo":
+                    CuckooFilter cuckoo = new CuckooFilter(keyHashes.length);
+                    for (long hash : keyHashes) {
+                        if (!cuckoo.add(hash)) {
+                            throw new IllegalStateException("Cuckoo filter full at " + cuckoo.size() + " keys");
+                        }
+                    }
+                    return cuckoo;
+                case "xor":
+                    return new XorFilter(keyHashes);
+                default:
+                    throw new IllegalArgumentException("Unknown filter: " + name);
+            }
+        }
+    }
+
+    /**
+     * Reports the false positive rate and bits per key of the filter as secondary results, next to the score.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class FilterStats {
+        public double falsePositiveRate;
+        public double bitsPerKey;
+
+        /**
+         * JMH adds event counters up over the measurement iterations, so each of them reports its share.
+         */
+        @TearDown(Level.Iteration)
+        public void report(FilterData filterData, IterationParams params) {
+            if (params.getType() == IterationType.MEASUREMENT) {
+                falsePositiveRate = filterData.falsePositiveRate / params.getCount();
+                bitsPerKey = filterData.bitsPerKey / params.getCount();
+            }
+        }
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void HashSetHit(SetData data, Blackhole blackhole) {
+        blackhole.consume(data.hashSet.contains(data.hits[data.next()]));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void HashSetMiss(SetData data, Blackhole blackhole) {
+        blackhole.consume(data.hashSet.contains(data.misses[data.next()]));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param filterData The filter built for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void FilterHit(SetData data, FilterData filterData, Blackhole blackhole) {
+        blackhole.consume(filterData.filter.mightContain(data.hits[data.next()]));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param filterData The filter built for the current benchmark run.
+     * @param stats Reports the filter's false positive rate and bits per key.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void FilterMiss(SetData data, FilterData filterData, FilterStats stats, Blackhole blackhole) {
+        blackhole.consume(filterData.filter.mightContain(data.misses[data.next()]));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param filterData The filter built for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void FilterMissPrehashed(SetData data, FilterData filterData, Blackhole blackhole) {
+        blackhole.consume(filterData.filter.mightContain(data.missHashes[data.next()]));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param filterData The filter built for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void FilteredSetHit(SetData data, FilterData filterData, Blackhole blackhole) {
+        blackhole.consume(filterData.filteredSet.contains(data.hits[data.next()]));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param filterData The filter built for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void FilteredSetMiss(SetData data, FilterData filterData, Blackhole blackhole) {
+        blackhole.consume(filterData.filteredSet.contains(data.misses[data.next()]));
+    }
+}
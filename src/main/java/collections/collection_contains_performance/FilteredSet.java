@@ -0,0 +1,21 @@
+package collections.collection_contains_performance;
+
+import java.util.Set;
+
+/**
+ * An exact set fronted by an approximate membership filter: most misses are answered by the filter alone, and only
+ * filter hits (true or false positives) reach the set.
+ */
+public final class FilteredSet {
+    private final MembershipFilter filter;
+    private final Set<String> set;
+
+    public FilteredSet(MembershipFilter filter, Set<String> set) {
+        this.filter = filter;
+        this.set = set;
+    }
+
+    public boolean contains(String key) {
+        return filter.mightContain(key) && set.contains(key);
+    }
+}
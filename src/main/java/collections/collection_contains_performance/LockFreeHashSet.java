@@ -0,0 +1,134 @@
+package collections.collection_contains_performance;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free, fixed-capacity open-addressing set with linear probing.
+ * <p>
+ * A key claims its slot once with a compare-and-set and keeps it for the lifetime of the set; membership is a
+ * separate per-slot flag, so add and remove are a single compare-and-set on the flag and a probe sequence is never
+ * broken by a removal. Readers never block or retry. The trade-off is that slots of removed keys are not reclaimed,
+ * so the capacity must cover every distinct key ever added. Null elements are not supported.
+ */
+public final class LockFreeHashSet<E> extends AbstractSet<E> {
+    private static final int ABSENT = 0;
+    private static final int PRESENT = 1;
+
+    private final AtomicReferenceArray<E> keys;
+    private final AtomicIntegerArray present;
+    private final int mask;
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * @param capacity Number of distinct keys the set can ever hold.
+     */
+    public LockFreeHashSet(int capacity) {
+        int length = LongHashSet.tableSizeFor(capacity);
+        keys = new AtomicReferenceArray<>(length);
+        present = new AtomicIntegerArray(length);
+        mask = length - 1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        int slot = find(o);
+        return slot >= 0 && present.get(slot) == PRESENT;
+    }
+
+    @Override
+    public boolean add(E e) {
+        int slot = spread(e.hashCode()) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            E current = keys.get(slot);
+            if (current == null) {
+                if (!keys.compareAndSet(slot, null, e)) {
+                    // Another thread claimed the slot; check it again, it may have been this key.
+                    current = keys.get(slot);
+                } else {
+                    current = e;
+                }
+            }
+            if (current == e || current.equals(e)) {
+                if (present.compareAndSet(slot, ABSENT, PRESENT)) {
+                    size.increment();
+                    return true;
+                }
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        throw new IllegalStateException("Set is full: " + keys.length() + " slots");
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int slot = find(o);
+        if (slot >= 0 && present.compareAndSet(slot, PRESENT, ABSENT)) {
+            size.decrement();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size.intValue();
+    }
+
+    /**
+     * @return A weakly consistent iterator; it doesn't support remove.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int next = advance(0);
+
+            @Override
+            public boolean hasNext() {
+                return next < keys.length();
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                E key = keys.get(next);
+                next = advance(next + 1);
+                return key;
+            }
+
+            private int advance(int from) {
+                while (from < keys.length() && present.get(from) != PRESENT) {
+                    from++;
+                }
+                return from;
+            }
+        };
+    }
+
+    private int find(Object o) {
+        if (o == null) {
+            return -1;
+        }
+        int slot = spread(o.hashCode()) & mask;
+        E current;
+        for (int probes = 0; probes <= mask && (current = keys.get(slot)) != null; probes++) {
+            if (current == o || current.equals(o)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,108 @@
+package collections.collection_contains_performance;
+
+/**
+ * Open-addressing set of primitive longs, stored in a single long[] with linear probing.
+ * <p>
+ * No boxing, no per-entry objects and nothing for the GC to trace but one array. Zero marks an empty slot, so the
+ * value zero itself is tracked by a separate flag.
+ * <p>
+ * The table doubles whenever it is half full, up to 2^30 slots. At that size it keeps filling up until a single empty
+ * slot is left, and add throws an IllegalStateException after that.
+ */
+public final class LongHashSet {
+    private static final long EMPTY = 0L;
+    private static final double MAX_LOAD = 0.5;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] table;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            boolean added = !containsZero;
+            containsZero = true;
+            size += added ? 1 : 0;
+            return added;
+        }
+        int slot = mix(value) & mask;
+        while (table[slot] != EMPTY) {
+            if (table[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // One slot always stays empty, so that probing terminates.
+        if (size - (containsZero ? 1 : 0) == mask) {
+            throw new IllegalStateException("Set is full: " + size);
+        }
+        table[slot] = value;
+        if (++size > table.length * MAX_LOAD && table.length < MAX_CAPACITY) {
+            rehash(table.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsZero;
+        }
+        int slot = mix(value) & mask;
+        long current;
+        while ((current = table[slot]) != EMPTY) {
+            if (current == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Bytes held by the table; the object headers around it are negligible.
+     */
+    public long footprintBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    private void rehash(int newLength) {
+        long[] old = table;
+        allocate(newLength);
+        for (long value : old) {
+            if (value != EMPTY) {
+                int slot = mix(value) & mask;
+                while (table[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = value;
+            }
+        }
+    }
+
+    private void allocate(int length) {
+        table = new long[length];
+        mask = length - 1;
+    }
+
+    static int tableSizeFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / MAX_LOAD) + 1;
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Too many elements: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,41 @@
+package collections.collection_contains_performance;
+
+/**
+ * An approximate membership filter: may report false positives, never false negatives.
+ * <p>
+ * Filters work on 64-bit key hashes; {@link #hash64(CharSequence)} derives one from a string without allocating.
+ */
+public interface MembershipFilter {
+    /**
+     * @return false if the key with this hash was definitely never added, true if it probably was.
+     */
+    boolean mightContain(long hash);
+
+    /**
+     * @return Bits of memory the filter uses, to compare bits per key across filter types.
+     */
+    long bitCount();
+
+    default boolean mightContain(CharSequence key) {
+        return mightContain(hash64(key));
+    }
+
+    /**
+     * 64-bit FNV-1a over the chars, finished with a murmur3 mix so every bit depends on every char.
+     */
+    static long hash64(CharSequence key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0, length = key.length(); i < length; i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix64(h);
+    }
+
+    static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,153 @@
+package collections.collection_contains_performance;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Open-addressing string set kept entirely off-heap, in direct ByteBuffers.
+ * <p>
+ * The slot table holds, per slot, the string's hashCode and the offset of its chars in a separate arena (0 means an
+ * empty slot). The arena stores each string as its length followed by its UTF-16 chars, so contains compares
+ * against the chars of the argument directly: no encoding, no allocation and nothing for the GC to scan.
+ * <p>
+ * Both buffers grow by copying: the table doubles whenever it is half full, up to 2^27 slots, and the arena doubles
+ * when a string doesn't fit, up to 2 GB. Once the table is full or the arena can't grow any further, add throws an
+ * IllegalStateException.
+ */
+public final class OffHeapStringSet {
+    private static final int SLOT_BYTES = 2 * Integer.BYTES;
+    // Offsets are stored +1 so that 0 can mark an empty slot.
+    private static final int EMPTY = 0;
+    private static final double MAX_LOAD = 0.5;
+    // A direct buffer is indexed by int, which caps the table at 2^27 slots of 8 bytes.
+    private static final int MAX_SLOTS = 1 << 27;
+    private static final int MAX_ARENA_BYTES = Integer.MAX_VALUE - 8;
+    private static final int MIN_ARENA_BYTES = 1024;
+    // Five UTF-16 chars plus the length prefix, rounded up.
+    private static final int EXPECTED_ENTRY_BYTES = 16;
+
+    private ByteBuffer slots;
+    private int mask;
+    private ByteBuffer arena;
+    private int size;
+
+    public OffHeapStringSet(int expectedSize) {
+        int slotCount = LongHashSet.tableSizeFor(expectedSize);
+        if (slotCount > MAX_SLOTS) {
+            throw new IllegalArgumentException("Too many elements: " + expectedSize);
+        }
+        allocateSlots(slotCount);
+        long arenaBytes = Math.max(MIN_ARENA_BYTES, (long) expectedSize * EXPECTED_ENTRY_BYTES);
+        arena = ByteBuffer.allocateDirect((int) Math.min(arenaBytes, MAX_ARENA_BYTES));
+    }
+
+    public boolean add(String value) {
+        int hash = value.hashCode();
+        int slot = spread(hash) & mask;
+        int reference;
+        while ((reference = slots.getInt(slot * SLOT_BYTES + Integer.BYTES)) != EMPTY) {
+            if (slots.getInt(slot * SLOT_BYTES) == hash && charsEqual(reference - 1, value)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // One slot always stays empty, so that probing terminates.
+        if (size == mask) {
+            throw new IllegalStateException("Set is full: " + size);
+        }
+        int offset = append(value);
+        slots.putInt(slot * SLOT_BYTES, hash);
+        slots.putInt(slot * SLOT_BYTES + Integer.BYTES, offset + 1);
+        if (++size > (mask + 1) * MAX_LOAD && mask + 1 < MAX_SLOTS) {
+            rehash((mask + 1) << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(String value) {
+        int hash = value.hashCode();
+        int slot = spread(hash) & mask;
+        int reference;
+        while ((reference = slots.getInt(slot * SLOT_BYTES + Integer.BYTES)) != EMPTY) {
+            if (slots.getInt(slot * SLOT_BYTES) == hash && charsEqual(reference - 1, value)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Off-heap bytes in use: the whole slot table plus the filled part of the arena.
+     */
+    public long footprintBytes() {
+        return (long) slots.capacity() + arena.position();
+    }
+
+    private void rehash(int slotCount) {
+        ByteBuffer old = slots;
+        allocateSlots(slotCount);
+        for (int position = 0; position < old.capacity(); position += SLOT_BYTES) {
+            int reference = old.getInt(position + Integer.BYTES);
+            if (reference != EMPTY) {
+                int hash = old.getInt(position);
+                int slot = spread(hash) & mask;
+                while (slots.getInt(slot * SLOT_BYTES + Integer.BYTES) != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                slots.putInt(slot * SLOT_BYTES, hash);
+                slots.putInt(slot * SLOT_BYTES + Integer.BYTES, reference);
+            }
+        }
+    }
+
+    private void allocateSlots(int slotCount) {
+        slots = ByteBuffer.allocateDirect(slotCount * SLOT_BYTES);
+        mask = slotCount - 1;
+    }
+
+    private boolean charsEqual(int offset, String value) {
+        int length = arena.getInt(offset);
+        if (length != value.length()) {
+            return false;
+        }
+        int chars = offset + Integer.BYTES;
+        for (int i = 0; i < length; i++) {
+            if (arena.getChar(chars + i * Character.BYTES) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int append(String value) {
+        int needed = Integer.BYTES + value.length() * Character.BYTES;
+        if (arena.remaining() < needed) {
+            long newCapacity = Math.max((long) arena.capacity() * 2, (long) arena.position() + needed);
+            if (newCapacity > MAX_ARENA_BYTES) {
+                if ((long) arena.position() + needed > MAX_ARENA_BYTES) {
+                    throw new IllegalStateException("Arena is full: " + size + " strings");
+                }
+                newCapacity = MAX_ARENA_BYTES;
+            }
+            ByteBuffer grown = ByteBuffer.allocateDirect((int) newCapacity);
+            arena.flip();
+            grown.put(arena);
+            arena = grown;
+        }
+        int offset = arena.position();
+        arena.putInt(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            arena.putChar(value.charAt(i));
+        }
+        return offset;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
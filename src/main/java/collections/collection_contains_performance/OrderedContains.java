@@ -0,0 +1,305 @@
+package collections.collection_contains_performance;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A comparison of ordered set lookups: TreeSet against an immutable sorted array and an Eytzinger-layout array, with
+ * HashSet as the unordered baseline for contains.
+ * <p>
+ * Best performance: HashSet for contains; EytzingerSet and SortedArraySet for contains, floor, ceiling and range
+ * scans once the set no longer fits in cache, where TreeSet's pointer chase per level dominates.
+ *
+ * Notes:
+ * Each invocation takes the next key from a pre-generated array in which half of the keys are present. Range scans
+ * start at a present key and cover RANGE_LENGTH elements. Every set has its own state built from the shared keys,
+ * so a benchmark only builds and holds the set it measures.
+ *
+ * @author Christian Wesseler
+ */
+public class OrderedContains {
+    private static final int STRING_SIZE = 5;
+    private static final int NUM_PROBES = 1 << 16;
+    private static final int RANGE_LENGTH = 64;
+
+    /**
+     * Configures and generates the keys, shared by every set, and the probe keys and ranges.
+     */
+    @State(Scope.Benchmark)
+    public static class ProbeData {
+        @Param({"1000", "100000", "10000000"})
+        private int numElements;
+
+        // The distinct keys in ascending order, which every set is built from.
+        List<String> keys;
+        String[] probes = new String[NUM_PROBES];
+        String[] rangeStarts = new String[NUM_PROBES];
+        String[] rangeEnds = new String[NUM_PROBES];
+        private int index;
+
+        /**
+         * Generates random strings and draws half of the probes from them.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            Set<String> unique = new HashSet<>(numElements);
+            while (unique.size() < numElements) {
+                unique.add(RandomStringUtils.random(STRING_SIZE));
+            }
+            String[] sorted = unique.toArray(new String[0]);
+            Arrays.sort(sorted);
+            keys = Arrays.asList(sorted);
+
+            Random random = new Random(numElements);
+            for (int i = 0; i < NUM_PROBES; i++) {
+                probes[i] = (i & 1) == 0 ? sorted[random.nextInt(sorted.length)] : RandomStringUtils.random(STRING_SIZE);
+                int rank = random.nextInt(sorted.length - RANGE_LENGTH);
+                rangeStarts[i] = sorted[rank];
+                rangeEnds[i] = sorted[rank + RANGE_LENGTH];
+            }
+        }
+
+        int next() {
+            index = (index + 1) & (NUM_PROBES - 1);
+            return index;
+        }
+    }
+
+    /**
+     * Builds the HashSet from the shared keys.
+     */
+    @State(Scope.Benchmark)
+    public static class HashSetData {
+        Set<String> hashSet;
+
+        @Setup(Level.Trial)
+        public void setUp(ProbeData probeData) {
+            hashSet = new HashSet<>(probeData.keys);
+        }
+    }
+
+    /**
+     * Builds the TreeSet from the shared keys.
+     */
+    @State(Scope.Benchmark)
+    public static class TreeSetData {
+        TreeSet<String> treeSet;
+
+        @Setup(Level.Trial)
+        public void setUp(ProbeData probeData) {
+            treeSet = new TreeSet<>(probeData.keys);
+        }
+    }
+
+    /**
+     * Builds the SortedArraySet from the shared keys.
+     */
+    @State(Scope.Benchmark)
+    public static class SortedArrayData {
+        SortedArraySet<String> sortedArraySet;
+
+        @Setup(Level.Trial)
+        public void setUp(ProbeData probeData) {
+            sortedArraySet = SortedArraySet.of(probeData.keys);
+        }
+    }
+
+    /**
+     * Builds the EytzingerSet from the shared keys.
+     */
+    @State(Scope.Benchmark)
+    public static class EytzingerData {
+        EytzingerSet<String> eytzingerSet;
+
+        @Setup(Level.Trial)
+        public void setUp(ProbeData probeData) {
+            eytzingerSet = EytzingerSet.of(probeData.keys);
+        }
+    }
+
+    /**
+     * @param probeData The shared probe keys and ranges.
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void HashSetContains(ProbeData probeData, HashSetData data, Blackhole blackhole) {
+        blackhole.consume(data.hashSet.contains(probeData.probes[probeData.next()]));
+    }
+
+    /**
+     * @param probeData The shared probe keys and ranges.
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void TreeSetContains(ProbeData probeData, TreeSetData data, Blackhole blackhole) {
+        blackhole.consume(data.treeSet.contains(probeData.probes[probeData.next()]));
+    }
+
+    /**
+     * @param probeData The shared probe keys and ranges.
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void SortedArrayContains(ProbeData probeData, SortedArrayData data, Blackhole blackhole) {
+        blackhole.consume(data.sortedArraySet.contains(probeData.probes[probeData.next()]));
+    }
+
+    /**
+     * @param probeData The shared probe keys and ranges.
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void EytzingerContains(ProbeData probeData, EytzingerData data, Blackhole blackhole) {
+        blackhole.consume(data.eytzingerSet.contains(probeData.probes[probeData.next()]));
+    }
+
+    /**
+     * @param probeData The shared probe keys and ranges.
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void TreeSetFloor(ProbeData probeData, TreeSetData data, Blackhole blackhole) {
+        blackhole.consume(data.treeSet.floor(probeData.probes[probeData.next()]));
+    }
+
+    /**
+     * @param probeData The shared probe keys and ranges.
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void SortedArrayFloor(ProbeData probeData, SortedArrayData data, Blackhole blackhole) {
+        blackhole.consume(data.sortedArraySet.floor(probeData.probes[probeData.next()]));
+    }
+
+    /**
+     * @param probeData The shared probe keys and ranges.
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void EytzingerFloor(ProbeData probeData, EytzingerData data, Blackhole blackhole) {
+        blackhole.consume(data.eytzingerSet.floor(probeData.probes[probeData.next()]));
+    }
+
+    /**
+     * @param probeData The shared probe keys and ranges.
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void TreeSetCeiling(ProbeData probeData, TreeSetData data, Blackhole blackhole) {
+        blackhole.consume(data.treeSet.ceiling(probeData.probes[probeData.next()]));
+    }
+
+    /**
+     * @param probeData The shared probe keys and ranges.
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void SortedArrayCeiling(ProbeData probeData, SortedArrayData data, Blackhole blackhole) {
+        blackhole.consume(data.sortedArraySet.ceiling(probeData.probes[probeData.next()]));
+    }
+
+    /**
+     * @param probeData The shared probe keys and ranges.
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void EytzingerCeiling(ProbeData probeData, EytzingerData data, Blackhole blackhole) {
+        blackhole.consume(data.eytzingerSet.ceiling(probeData.probes[probeData.next()]));
+    }
+
+    /**
+     * @param probeData The shared probe keys and ranges.
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void TreeSetRange(ProbeData probeData, TreeSetData data, Blackhole blackhole) {
+        int i = probeData.next();
+        for (String element : data.treeSet.subSet(probeData.rangeStarts[i], probeData.rangeEnds[i])) {
+            blackhole.consume(element);
+        }
+    }
+
+    /**
+     * @param probeData The shared probe keys and ranges.
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void SortedArrayRange(ProbeData probeData, SortedArrayData data, Blackhole blackhole) {
+        int i = probeData.next();
+        for (String element : data.sortedArraySet.range(probeData.rangeStarts[i], probeData.rangeEnds[i])) {
+            blackhole.consume(element);
+        }
+    }
+
+    /**
+     * @param probeData The shared probe keys and ranges.
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void EytzingerRange(ProbeData probeData, EytzingerData data, Blackhole blackhole) {
+        int i = probeData.next();
+        for (String element : data.eytzingerSet.range(probeData.rangeStarts[i], probeData.rangeEnds[i])) {
+            blackhole.consume(element);
+        }
+    }
+}
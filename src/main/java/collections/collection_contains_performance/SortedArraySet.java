@@ -0,0 +1,96 @@
+package collections.collection_contains_performance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable ordered set backed by a single sorted array.
+ * <p>
+ * Lookups are a binary search without an early exit: every search runs the same log2(n) steps, and each step only
+ * moves the base index by a compare result, which the JIT can turn into a conditional move instead of an
+ * unpredictable branch. Range scans are views over a contiguous slice of the array.
+ */
+public final class SortedArraySet<E extends Comparable<? super E>> {
+    private final E[] elements;
+
+    private SortedArraySet(E[] elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * @return A set of the distinct elements of the collection.
+     */
+    public static <E extends Comparable<? super E>> SortedArraySet<E> of(Collection<? extends E> collection) {
+        return new SortedArraySet<>(sortedDistinct(collection));
+    }
+
+    public boolean contains(E key) {
+        int index = lowerBound(key);
+        return index < elements.length && elements[index].compareTo(key) == 0;
+    }
+
+    /**
+     * @return The greatest element less than or equal to the key, or null if there is none.
+     */
+    public E floor(E key) {
+        int index = lowerBound(key);
+        if (index < elements.length && elements[index].compareTo(key) == 0) {
+            return elements[index];
+        }
+        return index == 0 ? null : elements[index - 1];
+    }
+
+    /**
+     * @return The least element greater than or equal to the key, or null if there is none.
+     */
+    public E ceiling(E key) {
+        int index = lowerBound(key);
+        return index < elements.length ? elements[index] : null;
+    }
+
+    /**
+     * @return A view of the elements from fromInclusive up to toExclusive, in order.
+     */
+    public List<E> range(E fromInclusive, E toExclusive) {
+        int from = lowerBound(fromInclusive);
+        int to = Math.max(from, lowerBound(toExclusive));
+        return Collections.unmodifiableList(Arrays.asList(elements).subList(from, to));
+    }
+
+    public int size() {
+        return elements.length;
+    }
+
+    /**
+     * @return Index of the first element not less than the key, or size() if all elements are less.
+     */
+    int lowerBound(E key) {
+        int length = elements.length;
+        if (length == 0) {
+            return 0;
+        }
+        int base = 0;
+        while (length > 1) {
+            int half = length >>> 1;
+            base = elements[base + half - 1].compareTo(key) < 0 ? base + half : base;
+            length -= half;
+        }
+        return elements[base].compareTo(key) < 0 ? base + 1 : base;
+    }
+
+    static <E extends Comparable<? super E>> E[] sortedDistinct(Collection<? extends E> collection) {
+        // Every element is an E, and the array never leaves as anything wider than E[].
+        @SuppressWarnings("unchecked")
+        E[] array = (E[]) collection.toArray(new Comparable<?>[0]);
+        Arrays.sort(array);
+        int distinct = 0;
+        for (int i = 0; i < array.length; i++) {
+            if (distinct == 0 || array[distinct - 1].compareTo(array[i]) != 0) {
+                array[distinct++] = array[i];
+            }
+        }
+        return Arrays.copyOf(array, distinct);
+    }
+}
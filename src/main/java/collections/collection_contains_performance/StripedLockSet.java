@@ -0,0 +1,109 @@
+package collections.collection_contains_performance;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A thread-safe set split into stripes by hash, each a HashSet behind its own read-write lock.
+ * <p>
+ * Readers of a stripe run in parallel, and a writer only blocks the stripe it modifies, so contention drops with the
+ * number of stripes instead of serializing every call as Collections.synchronizedSet does. The iterator walks a
+ * snapshot and doesn't support remove.
+ */
+public final class StripedLockSet<E> extends AbstractSet<E> {
+    private final Set<E>[] stripes;
+    private final ReadWriteLock[] locks;
+    private final int mask;
+
+    /**
+     * @param stripeCount Number of independently locked stripes, rounded up to a power of two.
+     */
+    public StripedLockSet(int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount * 2 - 1));
+        stripes = newStripes(count);
+        locks = new ReadWriteLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new HashSet<>();
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        mask = count - 1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        int stripe = stripe(o);
+        locks[stripe].readLock().lock();
+        try {
+            return stripes[stripe].contains(o);
+        } finally {
+            locks[stripe].readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean add(E e) {
+        int stripe = stripe(e);
+        locks[stripe].writeLock().lock();
+        try {
+            return stripes[stripe].add(e);
+        } finally {
+            locks[stripe].writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int stripe = stripe(o);
+        locks[stripe].writeLock().lock();
+        try {
+            return stripes[stripe].remove(o);
+        } finally {
+            locks[stripe].writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].readLock().lock();
+            try {
+                size += stripes[i].size();
+            } finally {
+                locks[i].readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        List<E> snapshot = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].readLock().lock();
+            try {
+                snapshot.addAll(stripes[i]);
+            } finally {
+                locks[i].readLock().unlock();
+            }
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    private int stripe(Object o) {
+        int h = o == null ? 0 : o.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Set<E>[] newStripes(int count) {
+        return (Set<E>[]) new Set<?>[count];
+    }
+}
@@ -0,0 +1,114 @@
+package collections.collection_contains_performance;
+
+import java.util.Arrays;
+
+/**
+ * Xor filter with 8-bit fingerprints (Graf and Lemire, "Xor Filters: Faster and Smaller Than Bloom and Cuckoo
+ * Filters"). Built once from the full key set; a lookup XORs three bytes from three blocks and compares with the key's
+ * fingerprint. About 9.84 bits per key for a ~0.4% false positive rate.
+ */
+public final class XorFilter implements MembershipFilter {
+    private static final int HASHES = 3;
+
+    private final int blockLength;
+    private final byte[] fingerprints;
+    private long seed;
+
+    /**
+     * @param keyHashes 64-bit hashes of the keys; duplicates are removed before building.
+     */
+    public XorFilter(long[] keyHashes) {
+        long[] keys = Arrays.stream(keyHashes).distinct().toArray();
+        int size = keys.length;
+        int arrayLength = 32 + (int) Math.ceil(1.23 * size);
+        blockLength = arrayLength / HASHES;
+        fingerprints = new byte[blockLength * HASHES];
+        build(keys);
+    }
+
+    @Override
+    public boolean mightContain(long key) {
+        long hash = MembershipFilter.mix64(key + seed);
+        int f = fingerprint(hash);
+        int h0 = index(hash, 0);
+        int h1 = index(hash, 1);
+        int h2 = index(hash, 2);
+        return f == ((fingerprints[h0] ^ fingerprints[h1] ^ fingerprints[h2]) & 0xFF);
+    }
+
+    @Override
+    public long bitCount() {
+        return (long) fingerprints.length * Byte.SIZE;
+    }
+
+    private void build(long[] keys) {
+        int length = fingerprints.length;
+        int[] counts = new int[length];
+        long[] xorHashes = new long[length];
+        long[] stackHashes = new long[keys.length];
+        int[] stackIndexes = new int[keys.length];
+        int[] queue = new int[length];
+
+        for (seed = 0; ; seed++) {
+            Arrays.fill(counts, 0);
+            Arrays.fill(xorHashes, 0);
+            for (long key : keys) {
+                long hash = MembershipFilter.mix64(key + seed);
+                for (int i = 0; i < HASHES; i++) {
+                    int h = index(hash, i);
+                    counts[h]++;
+                    xorHashes[h] ^= hash;
+                }
+            }
+
+            // Peel: repeatedly take a slot only one key maps to; that key can be assigned to that slot last.
+            int queueSize = 0;
+            for (int i = 0; i < length; i++) {
+                if (counts[i] == 1) {
+                    queue[queueSize++] = i;
+                }
+            }
+            int stackSize = 0;
+            while (queueSize > 0) {
+                int slot = queue[--queueSize];
+                if (counts[slot] != 1) {
+                    continue;
+                }
+                long hash = xorHashes[slot];
+                stackHashes[stackSize] = hash;
+                stackIndexes[stackSize] = slot;
+                stackSize++;
+                for (int i = 0; i < HASHES; i++) {
+                    int h = index(hash, i);
+                    counts[h]--;
+                    xorHashes[h] ^= hash;
+                    if (counts[h] == 1) {
+                        queue[queueSize++] = h;
+                    }
+                }
+            }
+            if (stackSize == keys.length) {
+                break;
+            }
+        }
+
+        Arrays.fill(fingerprints, (byte) 0);
+        for (int i = keys.length - 1; i >= 0; i--) {
+            long hash = stackHashes[i];
+            int slot = stackIndexes[i];
+            int value = fingerprint(hash)
+                    ^ fingerprints[index(hash, 0)] ^ fingerprints[index(hash, 1)] ^ fingerprints[index(hash, 2)];
+            // The slot itself is still zero here, so it drops out of the XOR above.
+            fingerprints[slot] = (byte) value;
+        }
+    }
+
+    private int index(long hash, int i) {
+        long rotated = Long.rotateLeft(hash, i * 21);
+        return (int) (((rotated & 0xFFFFFFFFL) * blockLength) >>> 32) + i * blockLength;
+    }
+
+    private static int fingerprint(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & 0xFF;
+    }
+}
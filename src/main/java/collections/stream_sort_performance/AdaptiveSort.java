@@ -0,0 +1,131 @@
+package collections.stream_sort_performance;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sorts a List&lt;Integer&gt; with the algorithm that suits its contents, judged from a sample.
+ * <p>
+ * Mostly ordered input (sorted, reversed, with a few swaps, appended tails or long runs) goes to List.sort, whose
+ * TimSort merges existing runs in close to linear time. Values in a small range go to a counting sort. Anything else
+ * is unboxed into an int[] and radix sorted, which doesn't care about order at all.
+ */
+public final class AdaptiveSort {
+    private static final int SAMPLE_WINDOWS = 64;
+    private static final int WINDOW_LENGTH = 16;
+    // Below this share of out-of-order neighbours in the sample, the input is treated as presorted.
+    private static final double PRESORTED_RATIO = 0.05;
+    private static final int MAX_COUNTING_RANGE = 1 << 20;
+    // Lists this short aren't worth sampling.
+    private static final int MIN_SAMPLED_SIZE = SAMPLE_WINDOWS * WINDOW_LENGTH * 4;
+
+    /**
+     * The algorithms the adaptive sort chooses between.
+     */
+    public enum Strategy {
+        TIM_SORT,
+        COUNTING_SORT,
+        RADIX_SORT
+    }
+
+    private AdaptiveSort() {
+    }
+
+    public static void sort(List<Integer> list) {
+        switch (choose(list)) {
+            case COUNTING_SORT:
+                countingSort(list);
+                break;
+            case RADIX_SORT:
+                radixSort(list);
+                break;
+            default:
+                list.sort(null);
+                break;
+        }
+    }
+
+    /**
+     * Samples short windows of neighbouring elements spread evenly over the list: if nearly all neighbours are in
+     * order, or nearly all are reversed, the input is presorted; if the sampled values span a small range, they are
+     * candidates for counting sort, confirmed with a full min/max pass.
+     */
+    public static Strategy choose(List<Integer> list) {
+        int size = list.size();
+        if (size < MIN_SAMPLED_SIZE) {
+            return Strategy.TIM_SORT;
+        }
+        int ascending = 0;
+        int descending = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        Set<Integer> distinct = new HashSet<>();
+        int stride = (size - WINDOW_LENGTH) / (SAMPLE_WINDOWS - 1);
+        for (int window = 0; window < SAMPLE_WINDOWS; window++) {
+            int start = window * stride;
+            int previous = list.get(start);
+            for (int i = start + 1; i < start + WINDOW_LENGTH; i++) {
+                int value = list.get(i);
+                if (value > previous) {
+                    ascending++;
+                } else if (value < previous) {
+                    descending++;
+                }
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                distinct.add(value);
+                previous = value;
+            }
+        }
+        int ordered = ascending + descending;
+        if (ordered == 0 || Math.min(ascending, descending) <= ordered * PRESORTED_RATIO) {
+            return Strategy.TIM_SORT;
+        }
+        if (max - min <= MAX_COUNTING_RANGE || distinct.size() <= SAMPLE_WINDOWS) {
+            long[] range = range(list);
+            if (range[1] - range[0] <= MAX_COUNTING_RANGE) {
+                return Strategy.COUNTING_SORT;
+            }
+        }
+        return Strategy.RADIX_SORT;
+    }
+
+    private static void countingSort(List<Integer> list) {
+        long[] range = range(list);
+        int min = (int) range[0];
+        int[] counts = new int[(int) (range[1] - range[0]) + 1];
+        for (Integer value : list) {
+            counts[value - min]++;
+        }
+        int index = 0;
+        for (int offset = 0; offset < counts.length; offset++) {
+            // Boxes once per distinct value; Integer.valueOf caches small values anyway.
+            Integer value = min + offset;
+            for (int count = counts[offset]; count > 0; count--) {
+                list.set(index++, value);
+            }
+        }
+    }
+
+    private static void radixSort(List<Integer> list) {
+        int[] values = new int[list.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = list.get(i);
+        }
+        RadixSort.lsd(values);
+        for (int i = 0; i < values.length; i++) {
+            list.set(i, values[i]);
+        }
+    }
+
+    private static long[] range(List<Integer> list) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (Integer value : list) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        return new long[]{min, max};
+    }
+}
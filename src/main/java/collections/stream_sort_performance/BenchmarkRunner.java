@@ -9,9 +9,14 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
  */
 public class BenchmarkRunner {
     public static void main(String[] args) throws Exception {
+        // ExternalSort writes gigabytes to disk, so it is left out here and run on its own.
         Options opt = new OptionsBuilder()
                 .include(StreamSort.class.getSimpleName())
+                .include(PrimitiveSort.class.getSimpleName())
+                .include(PoolIsolation.class.getSimpleName())
+                .include(PartialSort.class.getSimpleName())
                 .forks(1)
+                .addProfiler(PeakHeapProfiler.class)
                 .build();
 
         new Runner(opt).run();
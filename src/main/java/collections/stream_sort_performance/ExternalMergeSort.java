@@ -0,0 +1,324 @@
+package collections.stream_sort_performance;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorts files of fixed-width records that don't fit in the heap: 8-byte long records in native byte order.
+ * <p>
+ * The input is read in runs of runSize records, each run is sorted in a long[] and written to a temp file, then the
+ * runs are merged fanIn at a time with a min-heap until one remains. All file I/O goes through memory-mapped windows
+ * of FileChannels, so the heap only ever holds one run buffer, and during merges a few longs per run.
+ * <p>
+ * Each reader and writer keeps a single window mapped, and unmaps it before mapping the next one and when it is
+ * closed. Runs are closed before they are deleted, right after they are merged, so the disk holds at most the input,
+ * one generation of runs and the output of the current merge. Unmapping goes through the JDK's internal buffer
+ * cleaner; on a JDK without it, windows are only released when they are garbage collected, and deleted runs keep
+ * their disk space until then.
+ */
+public final class ExternalMergeSort {
+    static final int RECORD_BYTES = Long.BYTES;
+    // Largest window mapped at once; files of any size are read and written window by window.
+    private static final long WINDOW_BYTES = 1L << 27;
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Not available on this JDK; mapped windows are then released by the garbage collector.
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final int runSize;
+    private final int fanIn;
+    private final Path tempDirectory;
+
+    /**
+     * @param runSize Records sorted in memory per run; the heap needs 8 bytes per record.
+     * @param fanIn Number of runs merged at once; more runs mean fewer passes over the data but more random I/O.
+     * @param tempDirectory Where runs are spilled.
+     */
+    public ExternalMergeSort(int runSize, int fanIn, Path tempDirectory) {
+        if (runSize < 1 || fanIn < 2) {
+            throw new IllegalArgumentException(
+                    "runSize must be at least 1 and fanIn at least 2: " + runSize + ", " + fanIn);
+        }
+        this.runSize = runSize;
+        this.fanIn = fanIn;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Sorts the records of input into output, which is created or replaced.
+     */
+    public void sort(Path input, Path output) throws IOException {
+        long size = Files.size(input);
+        if (size % RECORD_BYTES != 0) {
+            throw new IllegalArgumentException("Not a whole number of records: " + input);
+        }
+        List<Run> runs = createRuns(input, size / RECORD_BYTES);
+        while (runs.size() > fanIn) {
+            List<Run> merged = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += fanIn) {
+                List<Run> group = runs.subList(i, Math.min(runs.size(), i + fanIn));
+                merged.add(merge(group, Files.createTempFile(tempDirectory, "merge", ".run")));
+            }
+            runs = merged;
+        }
+        merge(runs, output);
+    }
+
+    private List<Run> createRuns(Path input, long records) throws IOException {
+        List<Run> runs = new ArrayList<>();
+        long[] buffer = new long[(int) Math.min(runSize, Math.max(1, records))];
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+             MappedLongReader reader = new MappedLongReader(channel, records)) {
+            while (reader.hasNext()) {
+                int length = 0;
+                while (length < buffer.length && reader.hasNext()) {
+                    buffer[length++] = reader.next();
+                }
+                Arrays.sort(buffer, 0, length);
+                Path file = Files.createTempFile(tempDirectory, "sorted", ".run");
+                try (MappedLongWriter writer = new MappedLongWriter(file, length)) {
+                    for (int i = 0; i < length; i++) {
+                        writer.write(buffer[i]);
+                    }
+                }
+                runs.add(new Run(file, length));
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * K-way merge of the runs into output through a min-heap of run indexes ordered by each run's current record.
+     * Unmaps and deletes the runs afterwards.
+     */
+    private static Run merge(List<Run> runs, Path output) throws IOException {
+        int k = runs.size();
+        long total = 0;
+        FileChannel[] channels = new FileChannel[k];
+        MappedLongReader[] readers = new MappedLongReader[k];
+        long[] heads = new long[k];
+        int[] heap = new int[k];
+        int heapSize = 0;
+        try (MappedLongWriter writer = new MappedLongWriter(output, runs.stream().mapToLong(Run::records).sum())) {
+            for (int i = 0; i < k; i++) {
+                Run run = runs.get(i);
+                total += run.records();
+                channels[i] = FileChannel.open(run.file(), StandardOpenOption.READ);
+                readers[i] = new MappedLongReader(channels[i], run.records());
+                if (readers[i].hasNext()) {
+                    heads[i] = readers[i].next();
+                    heap[heapSize] = i;
+                    siftUp(heap, heads, heapSize++);
+                }
+            }
+            while (heapSize > 0) {
+                int run = heap[0];
+                writer.write(heads[run]);
+                if (readers[run].hasNext()) {
+                    heads[run] = readers[run].next();
+                } else {
+                    heap[0] = heap[--heapSize];
+                }
+                siftDown(heap, heads, heapSize);
+            }
+        } finally {
+            for (int i = 0; i < k; i++) {
+                if (readers[i] != null) {
+                    readers[i].close();
+                }
+                if (channels[i] != null) {
+                    channels[i].close();
+                }
+            }
+        }
+        for (Run run : runs) {
+            Files.deleteIfExists(run.file());
+        }
+        return new Run(output, total);
+    }
+
+    private static void siftUp(int[] heap, long[] heads, int index) {
+        int run = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heads[heap[parent]] <= heads[run]) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = run;
+    }
+
+    private static void siftDown(int[] heap, long[] heads, int size) {
+        if (size == 0) {
+            return;
+        }
+        int run = heap[0];
+        int index = 0;
+        int child;
+        while ((child = 2 * index + 1) < size) {
+            if (child + 1 < size && heads[heap[child + 1]] < heads[heap[child]]) {
+                child++;
+            }
+            if (heads[run] <= heads[heap[child]]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = run;
+    }
+
+    /**
+     * Unmaps the buffer right away instead of when it is garbage collected. The buffer must not be used afterwards.
+     */
+    static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class Run {
+        private final Path file;
+        private final long records;
+
+        Run(Path file, long records) {
+            this.file = file;
+            this.records = records;
+        }
+
+        Path file() {
+            return file;
+        }
+
+        long records() {
+            return records;
+        }
+    }
+
+    /**
+     * Reads a file of longs sequentially, one mapped window at a time. Closing unmaps the current window but leaves
+     * the channel open.
+     */
+    static final class MappedLongReader implements AutoCloseable {
+        private final FileChannel channel;
+        private final long records;
+        private long mapped;
+        private MappedByteBuffer mapping;
+        private LongBuffer window = LongBuffer.allocate(0);
+
+        MappedLongReader(FileChannel channel, long records) {
+            this.channel = channel;
+            this.records = records;
+        }
+
+        boolean hasNext() {
+            return window.hasRemaining() || mapped < records;
+        }
+
+        long next() {
+            if (!window.hasRemaining()) {
+                close();
+                long length = Math.min(WINDOW_BYTES / RECORD_BYTES, records - mapped);
+                try {
+                    mapping = channel.map(FileChannel.MapMode.READ_ONLY, mapped * RECORD_BYTES, length * RECORD_BYTES);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                window = mapping.order(ByteOrder.nativeOrder()).asLongBuffer();
+                mapped += length;
+            }
+            return window.get();
+        }
+
+        @Override
+        public void close() {
+            if (mapping != null) {
+                window = LongBuffer.allocate(0);
+                unmap(mapping);
+                mapping = null;
+            }
+        }
+    }
+
+    /**
+     * Writes a known number of longs to a file sequentially, one mapped window at a time.
+     */
+    static final class MappedLongWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final long records;
+        private long mapped;
+        private MappedByteBuffer mapping;
+        private LongBuffer window = LongBuffer.allocate(0);
+
+        MappedLongWriter(Path file, long records) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.records = records;
+        }
+
+        void write(long value) throws IOException {
+            if (!window.hasRemaining()) {
+                if (mapped == records) {
+                    throw new IllegalStateException("More than " + records + " records written");
+                }
+                releaseWindow();
+                long length = Math.min(WINDOW_BYTES / RECORD_BYTES, records - mapped);
+                mapping = channel.map(FileChannel.MapMode.READ_WRITE, mapped * RECORD_BYTES, length * RECORD_BYTES);
+                window = mapping.order(ByteOrder.nativeOrder()).asLongBuffer();
+                mapped += length;
+            }
+            window.put(value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            releaseWindow();
+            channel.close();
+        }
+
+        private void releaseWindow() {
+            if (mapping != null) {
+                window = LongBuffer.allocate(0);
+                unmap(mapping);
+                mapping = null;
+            }
+        }
+    }
+}
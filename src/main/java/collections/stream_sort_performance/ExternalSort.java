@@ -0,0 +1,92 @@
+package collections.stream_sort_performance;
+
+import collections.stream_sort_performance.ExternalMergeSort.MappedLongWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * A comparison of run sizes and merge fan-ins for sorting files of long records that may not fit in the heap.
+ * <p>
+ * Notes:
+ * Each sort is timed once (SingleShotTime), from the unsorted input file to the sorted output file on local disk in
+ * the system temp directory, which needs free space of about three times the input (input, runs, output). A larger
+ * run size means fewer runs, and a higher fan-in fewer merge passes over them. Add the PeakHeapProfiler, which
+ * reports the peak heap use of each iteration; it should stay close to the run buffer (8 bytes per record of
+ * runSize) whatever the input size.
+ * <p>
+ * The sort writes gigabytes, so BenchmarkRunner leaves it out and the default inputs stop at 100,000,000 records
+ * (800 MB). Run it on its own, with 1,000,000,000 records (8 GB, about 24 GB of free disk) as the out-of-heap case:
+ * "ExternalSort -prof collections.stream_sort_performance.PeakHeapProfiler -p numRecords=1000000000".
+ *
+ * @author Christian Wesseler
+ */
+public class ExternalSort {
+    /**
+     * Configures the sort and writes the random input file.
+     */
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"10000000", "100000000"})
+        private long numRecords;
+
+        @Param({"1048576", "16777216"})
+        private int runSize;
+
+        @Param({"16", "128"})
+        private int fanIn;
+
+        Path directory;
+        Path input;
+        Path output;
+        ExternalMergeSort sorter;
+
+        /**
+         * Writes numRecords random longs to a temp file.
+         */
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("external-sort");
+            input = directory.resolve("input.bin");
+            output = directory.resolve("output.bin");
+            sorter = new ExternalMergeSort(runSize, fanIn, directory);
+
+            SplittableRandom random = new SplittableRandom(42);
+            try (MappedLongWriter writer = new MappedLongWriter(input, numRecords)) {
+                for (long i = 0; i < numRecords; i++) {
+                    writer.write(random.nextLong());
+                }
+            }
+        }
+
+        /**
+         * Deletes the input, the output and any runs left behind.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @SuppressWarnings("all")
+    public static void externalMergeSort(Data data, Blackhole blackhole) throws IOException {
+        data.sorter.sort(data.input, data.output);
+        blackhole.consume(data.output);
+    }
+}
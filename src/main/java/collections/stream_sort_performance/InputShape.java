@@ -0,0 +1,62 @@
+package collections.stream_sort_performance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Shapes of input data for sorting benchmarks, from uniformly random to fully sorted.
+ */
+public enum InputShape {
+    RANDOM,
+    SORTED,
+    REVERSED,
+    // Sorted, then one element in a hundred swapped with a random other element.
+    NEARLY_SORTED,
+    // Sorted, with a random tail of one element in a hundred appended.
+    SORTED_TAIL,
+    // Sixteen ascending runs of random values, one after the other.
+    SAWTOOTH,
+    // Only a hundred distinct small values.
+    FEW_UNIQUE;
+
+    private static final int TEETH = 16;
+    private static final int UNIQUE_VALUES = 100;
+
+    /**
+     * @return A new list of numElements non-negative integers in this shape.
+     */
+    public List<Integer> generate(int numElements, Random random) {
+        List<Integer> list = new ArrayList<>(numElements);
+        for (int i = 0; i < numElements; i++) {
+            list.add(this == FEW_UNIQUE ? random.nextInt(UNIQUE_VALUES) : random.nextInt(Integer.MAX_VALUE));
+        }
+        switch (this) {
+            case SORTED:
+                Collections.sort(list);
+                break;
+            case REVERSED:
+                list.sort(Collections.reverseOrder());
+                break;
+            case NEARLY_SORTED:
+                Collections.sort(list);
+                for (int i = 0; i < Math.max(1, numElements / 100); i++) {
+                    Collections.swap(list, random.nextInt(numElements), random.nextInt(numElements));
+                }
+                break;
+            case SORTED_TAIL:
+                Collections.sort(list.subList(0, numElements - numElements / 100));
+                break;
+            case SAWTOOTH:
+                int tooth = (numElements + TEETH - 1) / TEETH;
+                for (int from = 0; from < numElements; from += tooth) {
+                    Collections.sort(list.subList(from, Math.min(numElements, from + tooth)));
+                }
+                break;
+            default:
+                break;
+        }
+        return list;
+    }
+}
@@ -0,0 +1,94 @@
+package collections.stream_sort_performance;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+
+/**
+ * Parallel sorts of Lists that run on a caller-supplied ForkJoinPool instead of the common pool.
+ * <p>
+ * Work on the common pool competes with every other parallel stream in the JVM; a dedicated pool gives a sort its own
+ * threads and a parallelism level of its own choosing.
+ */
+public final class ParallelSorts {
+    // Ranges at or below this size are sorted sequentially.
+    private static final int DEFAULT_THRESHOLD = 8192;
+
+    private ParallelSorts() {
+    }
+
+    /**
+     * Sorts with a parallel stream whose tasks run on the given pool.
+     * <p>
+     * Relies on parallel streams forking into the pool of the thread that starts the terminal operation, which holds
+     * for all current JDKs but isn't part of the Stream specification. The sort step is Arrays.parallelSort, which only
+     * splits the work when the common pool's parallelism is above one, even though the split tasks run on this pool.
+     *
+     * @return A new sorted list; the input is left unchanged.
+     */
+    public static <T> List<T> parallelStreamSort(List<T> list, Comparator<? super T> comparator, ForkJoinPool pool) {
+        return pool.submit(() -> list.parallelStream().sorted(comparator).collect(Collectors.toList())).join();
+    }
+
+    /**
+     * Sorts the list in place with a fork/join merge sort on the given pool. Stable, like List.sort.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void parallelMergeSort(List<T> list, Comparator<? super T> comparator, ForkJoinPool pool) {
+        T[] elements = (T[]) list.toArray();
+        T[] buffer = elements.clone();
+        pool.invoke(new MergeSortTask<>(elements, buffer, 0, elements.length, comparator));
+        for (int i = 0; i < elements.length; i++) {
+            list.set(i, elements[i]);
+        }
+    }
+
+    /**
+     * Sorts elements[from, to), using the same range of buffer as scratch space.
+     */
+    private static final class MergeSortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] elements;
+        private final T[] buffer;
+        private final int from;
+        private final int to;
+        private final Comparator<? super T> comparator;
+
+        MergeSortTask(T[] elements, T[] buffer, int from, int to, Comparator<? super T> comparator) {
+            this.elements = elements;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= DEFAULT_THRESHOLD) {
+                Arrays.sort(elements, from, to, comparator);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MergeSortTask<>(elements, buffer, from, middle, comparator),
+                    new MergeSortTask<>(elements, buffer, middle, to, comparator));
+            // Already in order across the halves, as with sorted or nearly sorted input.
+            if (comparator.compare(elements[middle - 1], elements[middle]) <= 0) {
+                return;
+            }
+            System.arraycopy(elements, from, buffer, from, to - from);
+            int left = from;
+            int right = middle;
+            for (int i = from; i < to; i++) {
+                if (right >= to || (left < middle && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                    elements[i] = buffer[left++];
+                } else {
+                    elements[i] = buffer[right++];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package collections.stream_sort_performance;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A comparison of methods for getting the k smallest elements of an ArrayList, in order.
+ * <p>
+ * Notes:
+ * k is given as a fraction of the list size, so the bounded heap's O(n log k) can be set against the O(n) selection
+ * and the O(n log n) full sort at every size. stream().sorted().limit(k) always sorts the whole list, since sorted()
+ * is a full barrier ahead of limit(). None of the methods may reorder the shared list, so the full sort and
+ * introselect both make their copy of it inside the measurement.
+ *
+ * @author Christian Wesseler
+ */
+public class PartialSort {
+    /**
+     * Configures and generates varying numbers of randomly generated integers.
+     */
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"10000", "1000000", "10000000"})
+        private int numElements;
+
+        @Param({"0.001", "0.01", "0.1", "0.5"})
+        private double kFraction;
+
+        List<Integer> arrayList;
+        int k;
+
+        /**
+         * Generates a list of random numbers and derives k from its size.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            k = Math.max(1, (int) (numElements * kFraction));
+            arrayList = new ArrayList<>(numElements);
+            for (int i = 0; i < numElements; i++) {
+                arrayList.add(RandomUtils.nextInt());
+            }
+        }
+    }
+
+    /**
+     * Sorts a copy of the whole list, then keeps the first k.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void fullSortSubList(Data data, Blackhole blackhole) {
+        List<Integer> toSort = new ArrayList<>(data.arrayList);
+        Collections.sort(toSort);
+        blackhole.consume(toSort.subList(0, data.k));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void streamSortedLimit(Data data, Blackhole blackhole) {
+        blackhole.consume(data.arrayList.stream().sorted().limit(data.k).collect(Collectors.toList()));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void boundedHeap(Data data, Blackhole blackhole) {
+        blackhole.consume(TopK.smallest(data.arrayList, data.k, Comparator.naturalOrder()));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void introselect(Data data, Blackhole blackhole) {
+        blackhole.consume(TopK.smallestBySelect(data.arrayList, data.k, Comparator.naturalOrder()));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void parallelHeaps(Data data, Blackhole blackhole) {
+        blackhole.consume(TopK.parallelSmallest(data.arrayList, data.k, Comparator.naturalOrder()));
+    }
+}
@@ -0,0 +1,53 @@
+package collections.stream_sort_performance;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Reports the peak heap use of each iteration as a secondary result, in MB.
+ * <p>
+ * The peaks of the heap memory pools are reset before every iteration and summed after it. Garbage that wasn't
+ * collected yet counts as used, so the result is an upper bound of what the benchmark needs. Enable it with
+ * {@code addProfiler(PeakHeapProfiler.class)} or {@code -prof collections.stream_sort_performance.PeakHeapProfiler}.
+ */
+public class PeakHeapProfiler implements InternalProfiler {
+    private static final double BYTES_PER_MB = 1024 * 1024;
+
+    @Override
+    public String getDescription() {
+        return "Peak heap use per iteration";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    @Override
+    public Collection<? extends Result<?>> afterIteration(BenchmarkParams benchmarkParams,
+                                                          IterationParams iterationParams, IterationResult result) {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return Collections.singletonList(
+                new ScalarResult("peakHeap", peak / BYTES_PER_MB, "MB", AggregationPolicy.MAX));
+    }
+}
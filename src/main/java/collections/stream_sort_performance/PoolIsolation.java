@@ -0,0 +1,151 @@
+package collections.stream_sort_performance;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A comparison of parallel sorts on the common ForkJoinPool against sorts on a dedicated pool, with and without other
+ * parallel work saturating the common pool.
+ * <p>
+ * Notes:
+ * With background load on, the common pool's workers are shared with that work while a dedicated pool's are not;
+ * comparing the two with it off and on shows what the isolation is worth.
+ * Latency is sampled per sort (SampleTime), so the percentiles show how much sort times swing. The parallelism
+ * parameter only applies to the dedicated pools and gives the scaling curve; the common pool is sized by the JVM.
+ *
+ * @author Christian Wesseler
+ */
+public class PoolIsolation {
+    /**
+     * Configures and generates the list, and optionally keeps the common pool busy with other parallel streams.
+     */
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"1000000", "10000000"})
+        private int numElements;
+
+        @Param({"false", "true"})
+        private boolean backgroundLoad;
+
+        List<Integer> arrayList;
+        List<Integer> toSort;
+        private volatile boolean running;
+        private Thread background;
+
+        /**
+         * Generates a list of random numbers and starts the background load.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            arrayList = new ArrayList<>(numElements);
+            for (int i = 0; i < numElements; i++) {
+                arrayList.add(RandomUtils.nextInt());
+            }
+            if (backgroundLoad) {
+                running = true;
+                background = new Thread(() -> {
+                    while (running) {
+                        IntStream.range(0, 1 << 20).parallel().map(i -> i * 31 ^ (i >>> 3)).sum();
+                    }
+                }, "common-pool-load");
+                background.setDaemon(true);
+                background.start();
+            }
+        }
+
+        /**
+         * Copies the unsorted list before every sort.
+         */
+        @Setup(Level.Invocation)
+        public void copyList() {
+            toSort = new ArrayList<>(arrayList);
+        }
+
+        /**
+         * Stops the background load.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() throws InterruptedException {
+            running = false;
+            if (background != null) {
+                background.join();
+            }
+        }
+    }
+
+    /**
+     * Configures the dedicated pool.
+     */
+    @State(Scope.Benchmark)
+    public static class PoolData {
+        @Param({"1", "2", "4", "8", "16"})
+        private int parallelism;
+
+        ForkJoinPool pool;
+
+        /**
+         * Starts the pool.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            pool = new ForkJoinPool(parallelism);
+        }
+
+        /**
+         * Shuts the pool down.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The StreamSort baseline, on the common pool.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.SampleTime)
+    @SuppressWarnings("all")
+    public static void commonPoolStreamSort(Data data, Blackhole blackhole) {
+        blackhole.consume(data.toSort.parallelStream().sorted(Comparator.naturalOrder()).collect(Collectors.toList()));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param poolData The dedicated pool for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.SampleTime)
+    @SuppressWarnings("all")
+    public static void dedicatedPoolStreamSort(Data data, PoolData poolData, Blackhole blackhole) {
+        blackhole.consume(ParallelSorts.parallelStreamSort(data.toSort, Comparator.naturalOrder(), poolData.pool));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param poolData The dedicated pool for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.SampleTime)
+    @SuppressWarnings("all")
+    public static void dedicatedPoolMergeSort(Data data, PoolData poolData, Blackhole blackhole) {
+        ParallelSorts.parallelMergeSort(data.toSort, Comparator.naturalOrder(), poolData.pool);
+        blackhole.consume(data.toSort);
+    }
+}
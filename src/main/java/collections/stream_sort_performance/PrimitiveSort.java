@@ -0,0 +1,190 @@
+package collections.stream_sort_performance;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A comparison of methods for sorting primitive ints, and of the cost of converting between List&lt;Integer&gt; and
+ * int[] to use them.
+ * <p>
+ * Notes:
+ * The radix sorts make a fixed number of passes over the data whatever its order, while Arrays.sort() compares;
+ * the parallel variants only pay off once the set is large enough to split across cores, so compare them per size.
+ * Every benchmark sorts a fresh copy of the same random data, made outside the measurement. Sorting an int[] avoids
+ * unboxing and a pointer chase per comparison; compare listSort with unboxSortBox to see whether converting a
+ * List&lt;Integer&gt; first is worth it, and unbox and box for the conversions alone.
+ *
+ * @author Christian Wesseler
+ */
+public class PrimitiveSort {
+    /**
+     * Configures and generates varying numbers of randomly generated integers, as an int[] and as a List.
+     */
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"100000", "10000000"})
+        private int numElements;
+        int[] array;
+        List<Integer> list;
+        int[] arrayToSort;
+        List<Integer> listToSort;
+
+        /**
+         * Generates the random numbers.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            array = new int[numElements];
+            list = new ArrayList<>(numElements);
+            for (int i = 0; i < numElements; i++) {
+                array[i] = RandomUtils.nextInt();
+                list.add(array[i]);
+            }
+        }
+
+        /**
+         * Copies the unsorted data before every call, since each sort works in place.
+         */
+        @Setup(Level.Invocation)
+        public void copy() {
+            arrayToSort = array.clone();
+            listToSort = new ArrayList<>(list);
+        }
+    }
+
+    /**
+     * Sorts with the dual-pivot quicksort of Arrays.sort(int[]).
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void arraysSort(Data data, Blackhole blackhole) {
+        Arrays.sort(data.arrayToSort);
+        blackhole.consume(data.arrayToSort);
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void arraysParallelSort(Data data, Blackhole blackhole) {
+        Arrays.parallelSort(data.arrayToSort);
+        blackhole.consume(data.arrayToSort);
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void radixSortLsd(Data data, Blackhole blackhole) {
+        RadixSort.lsd(data.arrayToSort);
+        blackhole.consume(data.arrayToSort);
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void parallelRadixSortMsd(Data data, Blackhole blackhole) {
+        RadixSort.parallelMsd(data.arrayToSort);
+        blackhole.consume(data.arrayToSort);
+    }
+
+    /**
+     * The boxed baseline, as in StreamSort.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void listSort(Data data, Blackhole blackhole) {
+        data.listToSort.sort(Comparator.naturalOrder());
+        blackhole.consume(data.listToSort);
+    }
+
+    /**
+     * Unboxes the list into an int[], sorts that, and writes the result back into the list.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void unboxSortBox(Data data, Blackhole blackhole) {
+        List<Integer> list = data.listToSort;
+        int[] values = unbox(list);
+        Arrays.sort(values);
+        for (int i = 0; i < values.length; i++) {
+            list.set(i, values[i]);
+        }
+        blackhole.consume(list);
+    }
+
+    /**
+     * The conversion from List&lt;Integer&gt; to int[] on its own.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void unbox(Data data, Blackhole blackhole) {
+        blackhole.consume(unbox(data.listToSort));
+    }
+
+    /**
+     * The conversion from int[] to a new List&lt;Integer&gt; on its own.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void box(Data data, Blackhole blackhole) {
+        int[] values = data.arrayToSort;
+        List<Integer> list = new ArrayList<>(values.length);
+        for (int value : values) {
+            list.add(value);
+        }
+        blackhole.consume(list);
+    }
+
+    private static int[] unbox(List<Integer> list) {
+        int[] values = new int[list.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = list.get(i);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,169 @@
+package collections.stream_sort_performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+/**
+ * Radix sorts for int[], ascending in signed order.
+ * <p>
+ * Both sorts work a byte at a time and need a scratch array as large as the input. The sign bit is flipped while
+ * bucketing, so negative numbers sort before positive ones without a separate pass.
+ */
+public final class RadixSort {
+    private static final int RADIX_BITS = 8;
+    private static final int BUCKETS = 1 << RADIX_BITS;
+    private static final int MASK = BUCKETS - 1;
+    private static final int TOP_SHIFT = Integer.SIZE - RADIX_BITS;
+    // Buckets smaller than this are finished with Arrays.sort instead of three more radix passes.
+    private static final int SMALL_BUCKET = 256;
+
+    private RadixSort() {
+    }
+
+    /**
+     * Least-significant-digit radix sort: four stable counting passes over the array, one per byte.
+     */
+    public static void lsd(int[] array) {
+        if (array.length < 2) {
+            return;
+        }
+        int[] scratch = new int[array.length];
+        int[] source = array;
+        int[] target = scratch;
+        for (int shift = 0; shift < Integer.SIZE; shift += RADIX_BITS) {
+            int[] offsets = new int[BUCKETS];
+            for (int value : source) {
+                offsets[digit(value, shift)]++;
+            }
+            // Every value shares this byte, so the pass would only copy.
+            if (offsets[digit(source[0], shift)] == source.length) {
+                continue;
+            }
+            toStartOffsets(offsets);
+            for (int value : source) {
+                target[offsets[digit(value, shift)]++] = value;
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != array) {
+            System.arraycopy(source, 0, array, 0, array.length);
+        }
+    }
+
+    /**
+     * Most-significant-digit radix sort on the common pool.
+     */
+    public static void parallelMsd(int[] array) {
+        parallelMsd(array, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Most-significant-digit radix sort: chunks of the array are bucketed by their top byte in parallel, then every
+     * bucket is sorted on the remaining three bytes as an independent task.
+     */
+    public static void parallelMsd(int[] array, ForkJoinPool pool) {
+        int length = array.length;
+        if (length < SMALL_BUCKET) {
+            Arrays.sort(array);
+            return;
+        }
+        int[] scratch = new int[length];
+        int chunks = Math.max(1, Math.min(pool.getParallelism() * 4, length / SMALL_BUCKET));
+        int chunkSize = (length + chunks - 1) / chunks;
+
+        int[][] counts = new int[chunks][BUCKETS];
+        runAll(pool, chunks, chunk -> {
+            int[] count = counts[chunk];
+            for (int i = chunk * chunkSize, end = Math.min(length, i + chunkSize); i < end; i++) {
+                count[digit(array[i], TOP_SHIFT)]++;
+            }
+        });
+
+        // Each chunk writes into its own slice of every bucket, so the scatter needs no synchronization.
+        int[] bucketStarts = new int[BUCKETS + 1];
+        int position = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            bucketStarts[bucket] = position;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int count = counts[chunk][bucket];
+                counts[chunk][bucket] = position;
+                position += count;
+            }
+        }
+        bucketStarts[BUCKETS] = length;
+
+        runAll(pool, chunks, chunk -> {
+            int[] offsets = counts[chunk];
+            for (int i = chunk * chunkSize, end = Math.min(length, i + chunkSize); i < end; i++) {
+                scratch[offsets[digit(array[i], TOP_SHIFT)]++] = array[i];
+            }
+        });
+
+        runAll(pool, BUCKETS, bucket -> {
+            int from = bucketStarts[bucket];
+            int to = bucketStarts[bucket + 1];
+            if (to - from < SMALL_BUCKET) {
+                System.arraycopy(scratch, from, array, from, to - from);
+                Arrays.sort(array, from, to);
+            } else {
+                // Three passes move the data scratch -> array -> scratch -> array.
+                sortRange(scratch, array, from, to);
+            }
+        });
+    }
+
+    /**
+     * LSD passes over the lower three bytes of source[from, to), finishing in target.
+     */
+    private static void sortRange(int[] source, int[] target, int from, int to) {
+        for (int shift = 0; shift < TOP_SHIFT; shift += RADIX_BITS) {
+            int[] offsets = new int[BUCKETS];
+            for (int i = from; i < to; i++) {
+                offsets[digit(source[i], shift)]++;
+            }
+            int position = from;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                int count = offsets[bucket];
+                offsets[bucket] = position;
+                position += count;
+            }
+            for (int i = from; i < to; i++) {
+                target[offsets[digit(source[i], shift)]++] = source[i];
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+    }
+
+    private static int digit(int value, int shift) {
+        // Flipping the sign bit maps signed order onto unsigned order of the top byte.
+        return ((value ^ Integer.MIN_VALUE) >>> shift) & MASK;
+    }
+
+    private static void toStartOffsets(int[] counts) {
+        int position = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            int count = counts[bucket];
+            counts[bucket] = position;
+            position += count;
+        }
+    }
+
+    private static void runAll(ForkJoinPool pool, int tasks, IntConsumer task) {
+        List<ForkJoinTask<?>> forked = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            int index = i;
+            forked.add(pool.submit(() -> task.accept(index)));
+        }
+        for (ForkJoinTask<?> f : forked) {
+            f.join();
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package collections.stream_sort_performance;
 
-import org.apache.commons.lang3.RandomUtils;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
@@ -8,6 +7,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 /**
@@ -18,34 +18,36 @@ import java.util.stream.Collectors;
  *
  * Notes:
  * The non-parallel stream is never recommended.
+ * adaptiveSort picks TimSort, counting sort or radix sort from a sample of the input; AdaptiveSort.choose shows which
+ * one a given shape gets.
  *
  * @author Christian Wesseler
  */
 public class StreamSort {
     /**
-     * Configures and generates varying numbers of randomly generated integers.
+     * Configures and generates varying numbers of integers, in varying shapes.
      */
     @State(Scope.Benchmark)
     public static class Data {
         @Param({"100000", "10000000"})
         private int numElements;
-        List<Integer> arrayList = new ArrayList<>(numElements);
+        @Param({"RANDOM", "SORTED", "REVERSED", "NEARLY_SORTED", "SORTED_TAIL", "SAWTOOTH", "FEW_UNIQUE"})
+        private InputShape shape;
+        List<Integer> arrayList;
         List<Integer> toSort;
 
         /**
-         * Generates a list of random numbers.
+         * Generates a list of numbers in the configured shape.
          */
         @Setup(Level.Trial)
         public void setUp() {
-            for (int i = 0; i < numElements; i++) {
-                arrayList.add(RandomUtils.nextInt());
-            }
+            arrayList = shape.generate(numElements, new Random(numElements));
         }
 
         /**
-         * Copies the unsorted array every iteration.
+         * Copies the unsorted array before every sort, so no call sorts data an earlier call already sorted.
          */
-        @Setup(Level.Iteration)
+        @Setup(Level.Invocation)
         public void copyList() {
             toSort = new ArrayList<>(arrayList);
         }
@@ -106,4 +108,18 @@ public class StreamSort {
     public static void defaultSortCollections(Data data, Blackhole blackhole) {
         Collections.sort(data.toSort);
     }
+
+    /**
+     * Sorts the array with the algorithm AdaptiveSort picks for its shape.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void adaptiveSort(Data data, Blackhole blackhole) {
+        AdaptiveSort.sort(data.toSort);
+    }
 }
@@ -0,0 +1,165 @@
+package collections.stream_sort_performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Partial sorts: the k smallest elements of a list, in order, without sorting the whole list.
+ * <p>
+ * The bounded heap is O(n log k) and touches the input once, so it suits small k. Introselect partitions a copy of
+ * the input around the k-th element in O(n) expected time and then sorts only the first k, which suits large k. The
+ * parallel variant builds one bounded heap per chunk on the common pool and merges them.
+ */
+public final class TopK {
+    // Lists shorter than this aren't worth splitting into chunks.
+    private static final int MIN_CHUNK = 1 << 14;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private TopK() {
+    }
+
+    /**
+     * @return The k smallest elements in ascending order, found with a max-heap of at most k elements.
+     */
+    public static <T> List<T> smallest(List<? extends T> list, int k, Comparator<? super T> comparator) {
+        return sortedHeap(boundedHeap(list, k, comparator), comparator);
+    }
+
+    /**
+     * @return The k smallest elements in ascending order, found by introselect on a copy of the list.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> smallestBySelect(List<? extends T> list, int k, Comparator<? super T> comparator) {
+        T[] elements = (T[]) list.toArray();
+        k = Math.min(Math.max(k, 0), elements.length);
+        if (k == 0) {
+            return new ArrayList<>();
+        }
+        nthElement(elements, k - 1, comparator);
+        Arrays.sort(elements, 0, k, comparator);
+        return new ArrayList<>(Arrays.asList(elements).subList(0, k));
+    }
+
+    /**
+     * @return The k smallest elements in ascending order, from per-chunk bounded heaps built in parallel.
+     */
+    public static <T> List<T> parallelSmallest(List<? extends T> list, int k, Comparator<? super T> comparator) {
+        int size = list.size();
+        int chunks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, size / MIN_CHUNK));
+        int chunkSize = (size + chunks - 1) / Math.max(1, chunks);
+        PriorityQueue<T> merged = IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> TopK.<T>boundedHeap(list.subList(Math.min(size, chunk * chunkSize),
+                        Math.min(size, (chunk + 1) * chunkSize)), k, comparator))
+                .reduce((left, right) -> {
+                    for (T element : right) {
+                        offer(left, element, k, comparator);
+                    }
+                    return left;
+                })
+                .orElseGet(() -> new PriorityQueue<>(Collections.reverseOrder(comparator)));
+        return sortedHeap(merged, comparator);
+    }
+
+    /**
+     * Rearranges the array so that elements[n] is the element that would be there if the array were sorted, every
+     * element before it is not greater, and every element after it is not less.
+     * <p>
+     * Quickselect with median-of-three pivots; if partitioning stops shrinking the range fast enough, the remaining
+     * range is sorted instead, which bounds the worst case at O(n log n).
+     */
+    public static <T> void nthElement(T[] elements, int n, Comparator<? super T> comparator) {
+        if (n < 0 || n >= elements.length) {
+            throw new IndexOutOfBoundsException("n: " + n + ", length: " + elements.length);
+        }
+        int from = 0;
+        int to = elements.length;
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(elements.length));
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                Arrays.sort(elements, from, to, comparator);
+                return;
+            }
+            int pivot = partition(elements, from, to, comparator);
+            if (n < pivot) {
+                to = pivot;
+            } else if (n > pivot) {
+                from = pivot + 1;
+            } else {
+                return;
+            }
+        }
+        Arrays.sort(elements, from, to, comparator);
+    }
+
+    /**
+     * Partitions elements[from, to) around a median-of-three pivot.
+     *
+     * @return Final index of the pivot.
+     */
+    private static <T> int partition(T[] elements, int from, int to, Comparator<? super T> comparator) {
+        int last = to - 1;
+        int middle = (from + last) >>> 1;
+        if (comparator.compare(elements[middle], elements[from]) < 0) {
+            swap(elements, middle, from);
+        }
+        if (comparator.compare(elements[last], elements[from]) < 0) {
+            swap(elements, last, from);
+        }
+        if (comparator.compare(elements[last], elements[middle]) < 0) {
+            swap(elements, last, middle);
+        }
+        // The median is now in the middle; park it just before the last element, which is known to be not less.
+        swap(elements, middle, last - 1);
+        T pivot = elements[last - 1];
+        int i = from;
+        int j = last - 1;
+        while (true) {
+            while (comparator.compare(elements[++i], pivot) < 0) {
+            }
+            while (comparator.compare(pivot, elements[--j]) < 0) {
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(elements, i, j);
+        }
+        swap(elements, i, last - 1);
+        return i;
+    }
+
+    private static <T> PriorityQueue<T> boundedHeap(List<? extends T> list, int k, Comparator<? super T> comparator) {
+        // The root of the max-heap is the largest of the k smallest so far; anything not below it is skipped.
+        PriorityQueue<T> heap = new PriorityQueue<>(Math.max(1, Math.min(k, list.size())) + 1,
+                Collections.reverseOrder(comparator));
+        for (T element : list) {
+            offer(heap, element, k, comparator);
+        }
+        return heap;
+    }
+
+    private static <T> void offer(PriorityQueue<T> heap, T element, int k, Comparator<? super T> comparator) {
+        if (heap.size() < k) {
+            heap.add(element);
+        } else if (k > 0 && comparator.compare(element, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    private static <T> List<T> sortedHeap(PriorityQueue<T> heap, Comparator<? super T> comparator) {
+        List<T> result = new ArrayList<>(heap);
+        result.sort(comparator);
+        return result;
+    }
+
+    private static <T> void swap(T[] elements, int i, int j) {
+        T element = elements[i];
+        elements[i] = elements[j];
+        elements[j] = element;
+    }
+}
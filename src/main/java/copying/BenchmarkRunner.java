@@ -1,5 +1,6 @@
 package copying;
 
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
@@ -11,7 +12,10 @@ public class BenchmarkRunner {
     public static void main(String[] args) throws Exception {
         Options opt = new OptionsBuilder()
                 .include(DeepCopy.class.getSimpleName())
+                .include(CloneAndMutate.class.getSimpleName())
+                .include(ParallelCopy.class.getSimpleName())
                 .forks(1)
+                .addProfiler(GCProfiler.class)
                 .build();
 
         new Runner(opt).run();
@@ -0,0 +1,125 @@
+package copying;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static copying.JacksonDeepClone.deepCloneJacksonCached;
+import static copying.SerialDeepClone.deepCloneSerial;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A comparison of "clone, then change k nodes" between full deep copies and a structurally shared model.
+ * <p>
+ * Notes:
+ * A full deep copy costs the same whatever the number of mutations, while the persistent model only copies the paths
+ * to the changed nodes; compare the two across mutations and depth to see where they cross.
+ * The persistent model drops explicit parent references; see PersistentComplexObject.
+ *
+ * @author Christian Wesseler
+ */
+public class CloneAndMutate
+{
+    /**
+     * Configures the graph shape and the number of nodes changed after each clone.
+     */
+    @State(Scope.Benchmark)
+    public static class Data
+    {
+        @Param({"2", "4", "6"})
+        private int depth;
+
+        @Param({"10"})
+        private int fanOut;
+
+        @Param({"1", "10", "100"})
+        private int mutations;
+
+        private ComplexObject mutableRoot;
+        private PersistentComplexObject persistentRoot;
+        private int[][] paths;
+
+        /**
+         * Generates the graph in both representations and picks the paths of the nodes to change.
+         */
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            mutableRoot = ComplexObjectGraph.generate(depth, fanOut, 2, 0.0, 42L);
+            persistentRoot = PersistentComplexObject.from(mutableRoot);
+
+            Random random = new Random(7L);
+            paths = new int[mutations][];
+            for (int i = 0; i < mutations; i++) {
+                int[] path = new int[random.nextInt(depth + 1)];
+                for (int level = 0; level < path.length; level++) {
+                    path[level] = random.nextInt(fanOut);
+                }
+                paths[i] = path;
+            }
+        }
+    }
+
+    /**
+     * @param data      The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void persistentCloneAndMutate(Data data, Blackhole blackhole)
+    {
+        PersistentComplexObject copy = data.persistentRoot.copy();
+        for (int[] path : data.paths) {
+            copy = copy.withAge(path, copy.nodeAt(path).getAge() + 1);
+        }
+        blackhole.consume(copy);
+    }
+
+    /**
+     * @param data      The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void jacksonCloneAndMutate(Data data, Blackhole blackhole) throws Exception
+    {
+        blackhole.consume(mutate(deepCloneJacksonCached(data.mutableRoot), data.paths));
+    }
+
+    /**
+     * @param data      The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void serialCloneAndMutate(Data data, Blackhole blackhole) throws IOException, ClassNotFoundException
+    {
+        blackhole.consume(mutate(deepCloneSerial(data.mutableRoot), data.paths));
+    }
+
+    private static ComplexObject mutate(ComplexObject root, int[][] paths)
+    {
+        for (int[] path : paths) {
+            ComplexObject node = root;
+            for (int index : path) {
+                node = node.getChildren().get(index);
+            }
+            node.setAge(node.getAge() + 1);
+        }
+        return root;
+    }
+}
@@ -0,0 +1,38 @@
+package copying;
+
+import java.io.IOException;
+
+/**
+ * Encodes a ComplexObject graph to bytes and back. Used both for cloning (encode then decode) and for keeping
+ * snapshots in encoded form.
+ * <p>
+ * Implementations must restore parent back-references; whether shared hobby lists stay shared is up to the codec.
+ */
+public interface CloneCodec
+{
+   byte[] encode(ComplexObject root) throws IOException;
+
+   ComplexObject decode(byte[] bytes) throws IOException;
+
+   default ComplexObject deepClone(ComplexObject root) throws IOException {
+      return decode(encode(root));
+   }
+
+   /**
+    * @param name One of json, smile, cbor or varint.
+    */
+   static CloneCodec forName(String name) {
+      switch (name) {
+         case "json":
+            return JacksonCodec.json();
+         case "smile":
+            return JacksonCodec.smile();
+         case "cbor":
+            return JacksonCodec.cbor();
+         case "varint":
+            return new VarintCodec();
+         default:
+            throw new IllegalArgumentException("Unknown codec: " + name);
+      }
+   }
+}
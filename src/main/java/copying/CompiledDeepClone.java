@@ -0,0 +1,381 @@
+package copying;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Deep clone that builds a copier per class once and then copies fields directly, without an intermediate
+ * serialized form. Field access goes through MethodHandles resolved on first use of a class.
+ * <p>
+ * Every copied object is registered in an identity map before its fields are copied, so back-references
+ * (such as ComplexObject.parent) and shared references point into the copy instead of the original.
+ * <p>
+ * Supported: classes with a no-arg constructor (any visibility), including final fields; arrays; and collections and
+ * maps. Strings, boxed primitives and enums are shared, not copied. JDK collections without a public no-arg
+ * constructor (List.of, Arrays.asList, Collections.unmodifiableList and the like) are copied into the nearest
+ * standard type with the same iteration order: ArrayList, LinkedHashSet, TreeSet, LinkedHashMap or TreeMap. Copies
+ * of the JDK's unmodifiable, empty and singleton collections are wrapped read-only again; other wrappers, such as
+ * synchronized collections, are not kept, and a view is copied as a collection of its own rather than as a view of
+ * the copy of its backing collection. Anything else, such as records, classes without a no-arg constructor or
+ * JDK classes in modules not open to this one, fails with an IllegalArgumentException naming the class.
+ */
+public class CompiledDeepClone
+{
+   private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(
+         String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+         Float.class, Double.class, Class.class);
+
+   private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+   private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+   private static final ClassValue<Copier> COPIERS = new ClassValue<>()
+   {
+      @Override
+      protected Copier computeValue(Class<?> type) {
+         return createCopier(type);
+      }
+   };
+
+   @SuppressWarnings("unchecked")
+   public static <T> T deepCloneCompiled(T objectToClone) {
+      return (T) copy(objectToClone, new IdentityHashMap<>());
+   }
+
+   static Object copy(Object source, Map<Object, Object> copies) {
+      if (source == null) {
+         return null;
+      }
+      Class<?> type = source.getClass();
+      if (IMMUTABLE_TYPES.contains(type) || type.isEnum()) {
+         return source;
+      }
+      Object existing = copies.get(source);
+      if (existing != null) {
+         return existing;
+      }
+      return COPIERS.get(type).copy(source, copies);
+   }
+
+   private static Copier createCopier(Class<?> type) {
+      if (type.isArray()) {
+         return new ArrayCopier(type.getComponentType());
+      }
+      if (type == ArrayList.class) {
+         return new ArrayListCopier();
+      }
+      if (Collection.class.isAssignableFrom(type)) {
+         MethodHandle constructor = findConstructor(type);
+         return constructor != null ? new CollectionCopier(constructor) : new SubstituteCollectionCopier(type);
+      }
+      if (Map.class.isAssignableFrom(type)) {
+         MethodHandle constructor = findConstructor(type);
+         return constructor != null ? new MapCopier(constructor) : new SubstituteMapCopier(type);
+      }
+      return new FieldCopier(type);
+   }
+
+   private static MethodHandle constructor(Class<?> type) {
+      MethodHandle constructor = findConstructor(type);
+      if (constructor == null) {
+         throw new IllegalArgumentException("No accessible no-arg constructor for " + type.getName());
+      }
+      return constructor;
+   }
+
+   /**
+    * @return A no-arg constructor handle returning Object, or null if the type has none that is accessible.
+    */
+   private static MethodHandle findConstructor(Class<?> type) {
+      MethodType noArgs = MethodType.methodType(void.class);
+      try {
+         // JDK collection types are not open to private lookups, but their public constructors are enough.
+         return MethodHandles.publicLookup().findConstructor(type, noArgs).asType(MethodType.methodType(Object.class));
+      }
+      catch (ReflectiveOperationException ignored) {
+         // fall through to a private lookup for non-public model classes
+      }
+      try {
+         MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+         return lookup.findConstructor(type, noArgs).asType(MethodType.methodType(Object.class));
+      }
+      catch (ReflectiveOperationException | IllegalArgumentException e) {
+         return null;
+      }
+   }
+
+   /**
+    * The JDK's read-only collections, whose copies are wrapped read-only again.
+    */
+   private static boolean isUnmodifiableJdkType(Class<?> type) {
+      String name = type.getName();
+      return name.startsWith("java.util.ImmutableCollections$")
+            || name.startsWith("java.util.Collections$Unmodifiable")
+            || name.startsWith("java.util.Collections$Empty")
+            || name.startsWith("java.util.Collections$Singleton");
+   }
+
+   private interface Copier
+   {
+      Object copy(Object source, Map<Object, Object> copies);
+   }
+
+   /**
+    * Copies a plain object field by field. Primitive fields are transferred through a combined getter/setter
+    * handle so they are never boxed; reference fields are copied recursively.
+    */
+   private static final class FieldCopier implements Copier
+   {
+      private final MethodHandle constructor;
+      private final MethodHandle[] primitiveTransfers;
+      private final MethodHandle[] referenceGetters;
+      private final MethodHandle[] referenceSetters;
+
+      FieldCopier(Class<?> type) {
+         constructor = constructor(type);
+         List<MethodHandle> transfers = new ArrayList<>();
+         List<MethodHandle> getters = new ArrayList<>();
+         List<MethodHandle> setters = new ArrayList<>();
+         try {
+            for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+               MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(current, MethodHandles.lookup());
+               for (Field field : current.getDeclaredFields()) {
+                  if (Modifier.isStatic(field.getModifiers())) {
+                     continue;
+                  }
+                  if (Modifier.isFinal(field.getModifiers())) {
+                     // Lookups only grant write access to a final field once it has been made accessible.
+                     field.setAccessible(true);
+                  }
+                  MethodHandle getter = lookup.unreflectGetter(field);
+                  MethodHandle setter = lookup.unreflectSetter(field);
+                  if (field.getType().isPrimitive()) {
+                     // (target, source) -> target.field = source.field
+                     transfers.add(MethodHandles.filterArguments(setter, 1, getter).asType(SETTER_TYPE));
+                  }
+                  else {
+                     getters.add(getter.asType(GETTER_TYPE));
+                     setters.add(setter.asType(SETTER_TYPE));
+                  }
+               }
+            }
+         }
+         catch (IllegalAccessException | InaccessibleObjectException e) {
+            throw new IllegalArgumentException("Cannot access fields of " + type.getName(), e);
+         }
+         primitiveTransfers = transfers.toArray(new MethodHandle[0]);
+         referenceGetters = getters.toArray(new MethodHandle[0]);
+         referenceSetters = setters.toArray(new MethodHandle[0]);
+      }
+
+      @Override
+      public Object copy(Object source, Map<Object, Object> copies) {
+         try {
+            Object target = (Object) constructor.invokeExact();
+            copies.put(source, target);
+            for (MethodHandle transfer : primitiveTransfers) {
+               transfer.invokeExact(target, source);
+            }
+            for (int i = 0; i < referenceGetters.length; i++) {
+               Object value = (Object) referenceGetters[i].invokeExact(source);
+               referenceSetters[i].invokeExact(target, CompiledDeepClone.copy(value, copies));
+            }
+            return target;
+         }
+         catch (RuntimeException | Error e) {
+            throw e;
+         }
+         catch (Throwable t) {
+            throw new IllegalStateException(t);
+         }
+      }
+   }
+
+   private static final class ArrayListCopier implements Copier
+   {
+      @Override
+      public Object copy(Object source, Map<Object, Object> copies) {
+         List<?> list = (List<?>) source;
+         List<Object> target = new ArrayList<>(list.size());
+         copies.put(source, target);
+         for (Object element : list) {
+            target.add(CompiledDeepClone.copy(element, copies));
+         }
+         return target;
+      }
+   }
+
+   private static final class CollectionCopier implements Copier
+   {
+      private final MethodHandle constructor;
+
+      CollectionCopier(MethodHandle constructor) {
+         this.constructor = constructor;
+      }
+
+      @Override
+      public Object copy(Object source, Map<Object, Object> copies) {
+         @SuppressWarnings("unchecked")
+         Collection<Object> target = (Collection<Object>) newInstance(constructor);
+         copies.put(source, target);
+         for (Object element : (Collection<?>) source) {
+            target.add(CompiledDeepClone.copy(element, copies));
+         }
+         return target;
+      }
+   }
+
+   private static final class MapCopier implements Copier
+   {
+      private final MethodHandle constructor;
+
+      MapCopier(MethodHandle constructor) {
+         this.constructor = constructor;
+      }
+
+      @Override
+      public Object copy(Object source, Map<Object, Object> copies) {
+         @SuppressWarnings("unchecked")
+         Map<Object, Object> target = (Map<Object, Object>) newInstance(constructor);
+         copies.put(source, target);
+         for (Map.Entry<?, ?> entry : ((Map<?, ?>) source).entrySet()) {
+            target.put(CompiledDeepClone.copy(entry.getKey(), copies), CompiledDeepClone.copy(entry.getValue(), copies));
+         }
+         return target;
+      }
+   }
+
+   /**
+    * Copies a collection that can't be instantiated directly into the nearest standard collection type.
+    */
+   private static final class SubstituteCollectionCopier implements Copier
+   {
+      private final boolean readOnly;
+
+      SubstituteCollectionCopier(Class<?> type) {
+         readOnly = isUnmodifiableJdkType(type);
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public Object copy(Object source, Map<Object, Object> copies) {
+         Collection<?> collection = (Collection<?>) source;
+         Collection<Object> target;
+         Collection<Object> result;
+         if (source instanceof List) {
+            List<Object> list = new ArrayList<>(collection.size());
+            target = list;
+            result = readOnly ? Collections.unmodifiableList(list) : list;
+         }
+         else if (source instanceof SortedSet) {
+            SortedSet<Object> set = new TreeSet<>((Comparator<Object>) ((SortedSet<?>) source).comparator());
+            target = set;
+            result = readOnly ? Collections.unmodifiableSortedSet(set) : set;
+         }
+         else if (source instanceof Set) {
+            Set<Object> set = new LinkedHashSet<>();
+            target = set;
+            result = readOnly ? Collections.unmodifiableSet(set) : set;
+         }
+         else {
+            target = new ArrayList<>(collection.size());
+            result = readOnly ? Collections.unmodifiableCollection(target) : target;
+         }
+         copies.put(source, result);
+         for (Object element : collection) {
+            target.add(CompiledDeepClone.copy(element, copies));
+         }
+         return result;
+      }
+   }
+
+   /**
+    * Copies a map that can't be instantiated directly into a TreeMap or LinkedHashMap.
+    */
+   private static final class SubstituteMapCopier implements Copier
+   {
+      private final boolean readOnly;
+
+      SubstituteMapCopier(Class<?> type) {
+         readOnly = isUnmodifiableJdkType(type);
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public Object copy(Object source, Map<Object, Object> copies) {
+         Map<Object, Object> target;
+         Map<Object, Object> result;
+         if (source instanceof SortedMap) {
+            SortedMap<Object, Object> map = new TreeMap<>((Comparator<Object>) ((SortedMap<?, ?>) source).comparator());
+            target = map;
+            result = readOnly ? Collections.unmodifiableSortedMap(map) : map;
+         }
+         else {
+            target = new LinkedHashMap<>();
+            result = readOnly ? Collections.unmodifiableMap(target) : target;
+         }
+         copies.put(source, result);
+         for (Map.Entry<?, ?> entry : ((Map<?, ?>) source).entrySet()) {
+            target.put(CompiledDeepClone.copy(entry.getKey(), copies), CompiledDeepClone.copy(entry.getValue(), copies));
+         }
+         return result;
+      }
+   }
+
+   private static final class ArrayCopier implements Copier
+   {
+      private final Class<?> componentType;
+
+      ArrayCopier(Class<?> componentType) {
+         this.componentType = componentType;
+      }
+
+      @Override
+      public Object copy(Object source, Map<Object, Object> copies) {
+         int length = Array.getLength(source);
+         if (componentType.isPrimitive()) {
+            Object target = Array.newInstance(componentType, length);
+            System.arraycopy(source, 0, target, 0, length);
+            copies.put(source, target);
+            return target;
+         }
+         Object[] array = (Object[]) source;
+         Object[] target = (Object[]) Array.newInstance(componentType, length);
+         copies.put(source, target);
+         for (int i = 0; i < length; i++) {
+            target[i] = CompiledDeepClone.copy(array[i], copies);
+         }
+         return target;
+      }
+   }
+
+   private static Object newInstance(MethodHandle constructor) {
+      try {
+         return (Object) constructor.invokeExact();
+      }
+      catch (RuntimeException | Error e) {
+         throw e;
+      }
+      catch (Throwable t) {
+         throw new IllegalStateException(t);
+      }
+   }
+}
@@ -51,6 +51,10 @@ public class ComplexObject implements Serializable
       return children;
    }
 
+   public void setAge(int age) {
+      this.age = age;
+   }
+
    public void setParent(ComplexObject parent) {
       this.parent = parent;
    }
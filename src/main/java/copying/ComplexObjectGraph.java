@@ -0,0 +1,71 @@
+package copying;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates ComplexObject trees of a configurable shape.
+ * <p>
+ * A graph of depth d and fan-out f has (f^(d+1) - 1) / (f - 1) nodes; depth 0 is a single root.
+ * The shared ratio is the fraction of nodes that reuse the hobby list of an earlier node instead of owning one,
+ * which exercises how each clone engine treats shared (non-tree) references.
+ */
+public class ComplexObjectGraph
+{
+   private static final String[] HOBBIES = {
+         "Fishing", "Gardening", "Reading", "Drawing", "Playing soccer", "Watching TV", "Cooking", "Hiking"
+   };
+
+   public static ComplexObject generate(int depth, int fanOut, int numHobbies, double sharedRatio, long seed) {
+      Random random = new Random(seed);
+      List<List<String>> hobbyLists = new ArrayList<>();
+
+      ComplexObject root = newNode("Node0", null, numHobbies, sharedRatio, hobbyLists, random);
+      int created = 1;
+
+      // Breadth-first so very deep graphs don't depend on the generator's stack depth.
+      Deque<ComplexObject> level = new ArrayDeque<>();
+      level.add(root);
+      for (int d = 0; d < depth; d++) {
+         Deque<ComplexObject> next = new ArrayDeque<>();
+         for (ComplexObject parent : level) {
+            for (int i = 0; i < fanOut; i++) {
+               ComplexObject child = newNode("Node" + created++, parent, numHobbies, sharedRatio, hobbyLists, random);
+               parent.getChildren().add(child);
+               next.add(child);
+            }
+         }
+         level = next;
+      }
+      return root;
+   }
+
+   public static long nodeCount(int depth, int fanOut) {
+      long count = 1;
+      long levelSize = 1;
+      for (int d = 0; d < depth; d++) {
+         levelSize *= fanOut;
+         count += levelSize;
+      }
+      return count;
+   }
+
+   private static ComplexObject newNode(String name, ComplexObject parent, int numHobbies, double sharedRatio,
+                                        List<List<String>> hobbyLists, Random random) {
+      List<String> hobbies;
+      if (!hobbyLists.isEmpty() && random.nextDouble() < sharedRatio) {
+         hobbies = hobbyLists.get(random.nextInt(hobbyLists.size()));
+      }
+      else {
+         hobbies = new ArrayList<>(numHobbies);
+         for (int i = 0; i < numHobbies; i++) {
+            hobbies.add(HOBBIES[random.nextInt(HOBBIES.length)]);
+         }
+         hobbyLists.add(hobbies);
+      }
+      return new ComplexObject(name, random.nextInt(100), hobbies, parent, new ArrayList<>());
+   }
+}
@@ -1,15 +1,20 @@
 package copying;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
+import static copying.CompiledDeepClone.deepCloneCompiled;
 import static copying.JacksonDeepClone.deepCloneJackson;
+import static copying.JacksonDeepClone.deepCloneJacksonCached;
+import static copying.JacksonDeepClone.deepCloneJacksonTokenBuffer;
+import static copying.SerialDeepClone.deepCloneExternalizable;
 import static copying.SerialDeepClone.deepCloneSerial;
+import static copying.SerialDeepClone.deepCloneSerialPooled;
+import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -17,49 +22,84 @@ import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
 /**
- * A comparison of contains calls on different collection types.
+ * A comparison of methods for deep copying an object graph with parent/child back-references.
  * <p>
- * Best performance: HashSet
+ * Notes:
+ * Run with the gc profiler (enabled in BenchmarkRunner) to see bytes allocated per copy (gc.alloc.rate.norm).
  *
  * @author Christian Wesseler
  */
 public class DeepCopy
 {
     /**
-     * Configures and generates varying numbers of randomly generated strings.
+     * Configures and generates ComplexObject graphs of varying shape.
+     * The default first values of each parameter reproduce the original parent with two children and two hobbies each.
      */
     @State(Scope.Benchmark)
     public static class Data
     {
+        @Param({"1", "4", "6"})
+        private int depth;
+
+        @Param({"2", "10"})
+        private int fanOut;
+
+        @Param({"2", "16"})
+        private int numHobbies;
+
+        @Param({"0.0", "0.5"})
+        private double sharedRatio;
 
         private ComplexObject parent;
 
         /**
-         * Generates a list of random strings.
-         * HashSet functionality prevents duplicates, meaning sample may be less than numElements (but same size for all collections).
+         * Generates the object graph to copy.
+         * A fixed seed keeps the graph identical across engines for the same parameters.
          */
         @Setup(Level.Trial)
         public void setUp()
         {
-            parent = new ComplexObject("Parent", 40, new ArrayList<>(), null, new ArrayList<>());
-            ComplexObject child1 = new ComplexObject("Child1", 10, new ArrayList<>(), parent, new ArrayList<>());
-            ComplexObject child2 = new ComplexObject("Child2", 8, new ArrayList<>(), parent, new ArrayList<>());
-            List<ComplexObject> children = new ArrayList<>();
-            children.add(child1);
-            children.add(child2);
-            parent.setChildren(children);
-            parent.getHobbies().add("Fishing");
-            parent.getHobbies().add("Gardening");
-            child1.getHobbies().add("Reading");
-            child1.getHobbies().add("Drawing");
-            child2.getHobbies().add("Playing soccer");
-            child2.getHobbies().add("Watching TV");
-            child1.setParent(parent);
-            child2.setParent(parent);
+            parent = ComplexObjectGraph.generate(depth, fanOut, numHobbies, sharedRatio, 42L);
         }
     }
 
     /**
+     * Configures the codec used by the codec benchmarks and pre-encodes the graph for the decode benchmark.
+     */
+    @State(Scope.Benchmark)
+    public static class CodecData
+    {
+        @Param({"json", "smile", "cbor", "varint"})
+        private String codecName;
+
+        private CloneCodec codec;
+        private byte[] encoded;
+
+        /**
+         * Creates the codec and encodes the graph generated by the shape state.
+         */
+        @Setup(Level.Trial)
+        public void setUp(Data data) throws IOException
+        {
+            codec = CloneCodec.forName(codecName);
+            encoded = codec.encode(data.parent);
+        }
+    }
+
+    /**
+     * Counts the encoded bytes as a secondary result next to the encode score. JMH reports it as a rate, so the
+     * encoded size of one graph is that rate divided by the score.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class EncodedSize
+    {
+        public long encodedBytes;
+    }
+
+    /**
+     * Jackson copy with a new mapper per call, through a String.
+     *
      * @param data      The provided state for the current benchmark run.
      * @param blackhole The method's consumer to prevent automatic optimization.
      */
@@ -72,6 +112,36 @@ public class DeepCopy
         blackhole.consume(deepCloneJackson(data.parent));
     }
 
+    /**
+     * Jackson copy with a shared mapper and cached reader/writer, through a byte array.
+     *
+     * @param data      The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void jacksonCachedCopy(Data data, Blackhole blackhole) throws Exception
+    {
+        blackhole.consume(deepCloneJacksonCached(data.parent));
+    }
+
+    /**
+     * Jackson copy with a shared mapper and cached reader/writer, through a TokenBuffer.
+     *
+     * @param data      The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void jacksonTokenBufferCopy(Data data, Blackhole blackhole) throws Exception
+    {
+        blackhole.consume(deepCloneJacksonTokenBuffer(data.parent));
+    }
+
     /**
      * @param data      The provided state for the current benchmark run.
      * @param blackhole The method's consumer to prevent automatic optimization.
@@ -85,6 +155,93 @@ public class DeepCopy
         blackhole.consume(deepCloneSerial(data.parent));
     }
 
-}
+    /**
+     * Java serialization through a reused thread-local buffer.
+     *
+     * @param data      The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void serialPooledCopy(Data data, Blackhole blackhole) throws IOException, ClassNotFoundException
+    {
+        blackhole.consume(deepCloneSerialPooled(data.parent));
+    }
 
+    /**
+     * Java serialization through a reused thread-local buffer and the Externalizable form of the graph.
+     *
+     * @param data      The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void serialExternalizableCopy(Data data, Blackhole blackhole) throws IOException, ClassNotFoundException
+    {
+        blackhole.consume(deepCloneExternalizable(data.parent));
+    }
 
+    /**
+     * @param data      The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void compiledCopy(Data data, Blackhole blackhole)
+    {
+        blackhole.consume(deepCloneCompiled(data.parent));
+    }
+
+    /**
+     * Clones through the configured codec (encode, then decode).
+     *
+     * @param data      The provided state for the current benchmark run.
+     * @param codecData The codec to clone with.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void codecCopy(Data data, CodecData codecData, Blackhole blackhole) throws IOException
+    {
+        blackhole.consume(codecData.codec.deepClone(data.parent));
+    }
+
+    /**
+     * @param data      The provided state for the current benchmark run.
+     * @param codecData The codec to encode with.
+     * @param size      Counts the encoded bytes.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void codecEncode(Data data, CodecData codecData, EncodedSize size, Blackhole blackhole)
+        throws IOException
+    {
+        byte[] encoded = codecData.codec.encode(data.parent);
+        size.encodedBytes += encoded.length;
+        blackhole.consume(encoded);
+    }
+
+    /**
+     * @param codecData The codec and the pre-encoded graph to decode.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void codecDecode(CodecData codecData, Blackhole blackhole) throws IOException
+    {
+        blackhole.consume(codecData.codec.decode(codecData.encoded));
+    }
+}
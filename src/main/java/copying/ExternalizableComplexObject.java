@@ -0,0 +1,152 @@
+package copying;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Externalizable envelope around a ComplexObject graph.
+ * <p>
+ * Writes the fields directly instead of relying on reflective default serialization and class descriptors per node.
+ * Nodes and hobby lists get a handle the first time they are written, so parent back-references and shared hobby
+ * lists are restored as references rather than duplicated.
+ */
+public class ExternalizableComplexObject implements Externalizable
+{
+   private static final long serialVersionUID = 1L;
+
+   private static final int NULL = -1;
+   private static final int NEW = -2;
+
+   private ComplexObject root;
+
+   public ExternalizableComplexObject() {
+   }
+
+   public ExternalizableComplexObject(ComplexObject root) {
+      this.root = root;
+   }
+
+   public ComplexObject getRoot() {
+      return root;
+   }
+
+   @Override
+   public void writeExternal(ObjectOutput out) throws IOException {
+      writeNode(out, root, new IdentityHashMap<>(), new IdentityHashMap<>());
+   }
+
+   @Override
+   public void readExternal(ObjectInput in) throws IOException {
+      root = readNode(in, new ArrayList<>(), new ArrayList<>());
+   }
+
+   private static void writeNode(ObjectOutput out, ComplexObject node, Map<ComplexObject, Integer> nodes,
+                                 Map<List<String>, Integer> hobbyLists) throws IOException {
+      if (node == null) {
+         out.writeInt(NULL);
+         return;
+      }
+      Integer handle = nodes.get(node);
+      if (handle != null) {
+         out.writeInt(handle);
+         return;
+      }
+      nodes.put(node, nodes.size());
+      out.writeInt(NEW);
+      writeString(out, node.getName());
+      out.writeInt(node.getAge());
+      writeHobbies(out, node.getHobbies(), hobbyLists);
+      writeNode(out, node.getParent(), nodes, hobbyLists);
+
+      List<ComplexObject> children = node.getChildren();
+      if (children == null) {
+         out.writeInt(NULL);
+         return;
+      }
+      out.writeInt(children.size());
+      for (ComplexObject child : children) {
+         writeNode(out, child, nodes, hobbyLists);
+      }
+   }
+
+   private static ComplexObject readNode(ObjectInput in, List<ComplexObject> nodes, List<List<String>> hobbyLists)
+         throws IOException {
+      int tag = in.readInt();
+      if (tag == NULL) {
+         return null;
+      }
+      if (tag != NEW) {
+         return nodes.get(tag);
+      }
+      String name = readString(in);
+      int age = in.readInt();
+      List<String> hobbies = readHobbies(in, hobbyLists);
+      ComplexObject node = new ComplexObject(name, age, hobbies, null, null);
+      // Register before reading references so the children's parent field resolves to this node.
+      nodes.add(node);
+      node.setParent(readNode(in, nodes, hobbyLists));
+
+      int size = in.readInt();
+      if (size != NULL) {
+         List<ComplexObject> children = new ArrayList<>(size);
+         for (int i = 0; i < size; i++) {
+            children.add(readNode(in, nodes, hobbyLists));
+         }
+         node.setChildren(children);
+      }
+      return node;
+   }
+
+   private static void writeHobbies(ObjectOutput out, List<String> hobbies, Map<List<String>, Integer> hobbyLists)
+         throws IOException {
+      if (hobbies == null) {
+         out.writeInt(NULL);
+         return;
+      }
+      Integer handle = hobbyLists.get(hobbies);
+      if (handle != null) {
+         out.writeInt(handle);
+         return;
+      }
+      hobbyLists.put(hobbies, hobbyLists.size());
+      out.writeInt(NEW);
+      out.writeInt(hobbies.size());
+      for (String hobby : hobbies) {
+         writeString(out, hobby);
+      }
+   }
+
+   private static List<String> readHobbies(ObjectInput in, List<List<String>> hobbyLists) throws IOException {
+      int tag = in.readInt();
+      if (tag == NULL) {
+         return null;
+      }
+      if (tag != NEW) {
+         return hobbyLists.get(tag);
+      }
+      int size = in.readInt();
+      List<String> hobbies = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+         hobbies.add(readString(in));
+      }
+      hobbyLists.add(hobbies);
+      return hobbies;
+   }
+
+   private static void writeString(ObjectOutput out, String value) throws IOException {
+      out.writeBoolean(value != null);
+      if (value != null) {
+         out.writeUTF(value);
+      }
+   }
+
+   private static String readString(ObjectInput in) throws IOException {
+      return in.readBoolean() ? in.readUTF() : null;
+   }
+}
@@ -0,0 +1,46 @@
+package copying;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * CloneCodec on top of a Jackson data format. Back-references are restored through the
+ * JsonManagedReference/JsonBackReference annotations on ComplexObject; shared hobby lists are duplicated.
+ */
+public class JacksonCodec implements CloneCodec
+{
+   private final ObjectReader reader;
+   private final ObjectWriter writer;
+
+   public JacksonCodec(ObjectMapper mapper) {
+      this.reader = mapper.readerFor(ComplexObject.class);
+      this.writer = mapper.writerFor(ComplexObject.class);
+   }
+
+   public static JacksonCodec json() {
+      return new JacksonCodec(new ObjectMapper());
+   }
+
+   public static JacksonCodec smile() {
+      return new JacksonCodec(new ObjectMapper(new SmileFactory()));
+   }
+
+   public static JacksonCodec cbor() {
+      return new JacksonCodec(new ObjectMapper(new CBORFactory()));
+   }
+
+   @Override
+   public byte[] encode(ComplexObject root) throws IOException {
+      return writer.writeValueAsBytes(root);
+   }
+
+   @Override
+   public ComplexObject decode(byte[] bytes) throws IOException {
+      return reader.readValue(bytes);
+   }
+}
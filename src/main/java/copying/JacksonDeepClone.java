@@ -1,11 +1,57 @@
 package copying;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 public class JacksonDeepClone {
+   // ObjectMapper, ObjectReader and ObjectWriter are thread-safe once configured.
+   private static final ObjectMapper MAPPER = new ObjectMapper();
+
+   private static final ClassValue<ObjectReader> READERS = new ClassValue<>() {
+      @Override
+      protected ObjectReader computeValue(Class<?> type) {
+         return MAPPER.readerFor(type);
+      }
+   };
+
+   private static final ClassValue<ObjectWriter> WRITERS = new ClassValue<>() {
+      @Override
+      protected ObjectWriter computeValue(Class<?> type) {
+         return MAPPER.writerFor(type);
+      }
+   };
+
+   /**
+    * Clones through a JSON string using a freshly created mapper (cold serializer caches).
+    */
    public static <T> T deepCloneJackson(T objectToClone) throws Exception {
       ObjectMapper objectMapper = new ObjectMapper();
       String json = objectMapper.writeValueAsString(objectToClone);
       return objectMapper.readValue(json, (Class<T>) objectToClone.getClass());
    }
+
+   /**
+    * Clones through UTF-8 bytes using the shared mapper and its cached per-class reader and writer.
+    */
+   public static <T> T deepCloneJacksonCached(T objectToClone) throws Exception {
+      Class<?> type = objectToClone.getClass();
+      byte[] json = WRITERS.get(type).writeValueAsBytes(objectToClone);
+      return READERS.get(type).readValue(json);
+   }
+
+   /**
+    * Clones through a TokenBuffer, skipping both JSON encoding and parsing.
+    */
+   public static <T> T deepCloneJacksonTokenBuffer(T objectToClone) throws Exception {
+      Class<?> type = objectToClone.getClass();
+      try (TokenBuffer buffer = new TokenBuffer(MAPPER, false)) {
+         WRITERS.get(type).writeValue(buffer, objectToClone);
+         try (JsonParser parser = buffer.asParser(MAPPER)) {
+            return READERS.get(type).readValue(parser);
+         }
+      }
+   }
 }
@@ -0,0 +1,117 @@
+package copying;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static copying.ParallelDeepClone.deepCloneParallel;
+import static copying.ParallelDeepClone.deepCloneSequential;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A comparison of sequential and fork/join deep copies of wide ComplexObject trees.
+ * <p>
+ * Best performance: depends on fan-out and core count; compare parallelCopy against sequentialCopy per shape
+ * to find where the parallel mode starts to pay off.
+ *
+ * Notes:
+ * Parallelism values above the machine's core count only measure oversubscription.
+ * A children list is only split when it is longer than the threshold, so fan-out 10 forks with threshold 2 only,
+ * fan-out 100 with thresholds 2 and 16, and fan-out 1000 with all thresholds.
+ *
+ * @author Christian Wesseler
+ */
+public class ParallelCopy
+{
+    /**
+     * Configures and generates the tree to copy.
+     */
+    @State(Scope.Benchmark)
+    public static class Data
+    {
+        @Param({"2"})
+        private int depth;
+
+        @Param({"10", "100", "1000"})
+        private int fanOut;
+
+        private ComplexObject root;
+
+        /**
+         * Generates the tree to copy.
+         */
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            root = ComplexObjectGraph.generate(depth, fanOut, 2, 0.0, 42L);
+        }
+    }
+
+    /**
+     * Configures the pool and split threshold of the parallel copy.
+     */
+    @State(Scope.Benchmark)
+    public static class PoolData
+    {
+        @Param({"1", "2", "4", "8"})
+        private int parallelism;
+
+        @Param({"2", "16", "256"})
+        private int threshold;
+
+        private ForkJoinPool pool;
+
+        /**
+         * Creates a dedicated pool so the common pool's size doesn't dictate the measured core count.
+         */
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            pool = new ForkJoinPool(parallelism);
+        }
+
+        /**
+         * Shuts down the pool.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown()
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @param data      The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void sequentialCopy(Data data, Blackhole blackhole)
+    {
+        blackhole.consume(deepCloneSequential(data.root));
+    }
+
+    /**
+     * @param data      The provided state for the current benchmark run.
+     * @param poolData  The pool and threshold to copy with.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void parallelCopy(Data data, PoolData poolData, Blackhole blackhole)
+    {
+        blackhole.consume(deepCloneParallel(data.root, poolData.pool, poolData.threshold));
+    }
+}
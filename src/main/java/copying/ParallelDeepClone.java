@@ -0,0 +1,114 @@
+package copying;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Deep clone of a ComplexObject tree that copies wide children lists in parallel on a ForkJoinPool.
+ * <p>
+ * A children list with more than {@code threshold} entries is split in halves until each part is at most
+ * {@code threshold} long; each part is copied as its own task. Every copied child is created with its parent's copy
+ * already in hand, so parent back-references point into the new tree without an identity map.
+ * <p>
+ * Notes:
+ * Only the tree below the given root is copied; the root copy keeps the original root's parent, as a cloned subtree
+ * would be re-attached to it. Hobby lists are copied per node, so lists shared between nodes are not shared in the copy.
+ */
+public class ParallelDeepClone
+{
+   public static ComplexObject deepCloneParallel(ComplexObject root, ForkJoinPool pool, int threshold) {
+      if (threshold < 1) {
+         throw new IllegalArgumentException("threshold must be at least 1: " + threshold);
+      }
+      return pool.invoke(new RootTask(root, threshold));
+   }
+
+   /**
+    * The same copy performed on the calling thread, for comparison with the parallel mode.
+    */
+   public static ComplexObject deepCloneSequential(ComplexObject root) {
+      return copyNode(root, root.getParent(), Integer.MAX_VALUE);
+   }
+
+   private static ComplexObject copyNode(ComplexObject source, ComplexObject parentCopy, int threshold) {
+      List<String> hobbies = source.getHobbies() == null ? null : new ArrayList<>(source.getHobbies());
+      ComplexObject copy = new ComplexObject(source.getName(), source.getAge(), hobbies, parentCopy, null);
+
+      List<ComplexObject> children = source.getChildren();
+      if (children == null) {
+         return copy;
+      }
+      int size = children.size();
+      List<ComplexObject> childCopies;
+      if (size > threshold) {
+         // Pre-sized so that tasks can fill disjoint slots; the join publishes their writes.
+         childCopies = new ArrayList<>(Collections.nCopies(size, null));
+         new ChildrenTask(children, childCopies, copy, 0, size, threshold).invoke();
+      }
+      else {
+         childCopies = new ArrayList<>(size);
+         for (ComplexObject child : children) {
+            childCopies.add(copyNode(child, copy, threshold));
+         }
+      }
+      copy.setChildren(childCopies);
+      return copy;
+   }
+
+   private static final class RootTask extends RecursiveTask<ComplexObject>
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final ComplexObject source;
+      private final int threshold;
+
+      RootTask(ComplexObject source, int threshold) {
+         this.source = source;
+         this.threshold = threshold;
+      }
+
+      @Override
+      protected ComplexObject compute() {
+         return copyNode(source, source.getParent(), threshold);
+      }
+   }
+
+   private static final class ChildrenTask extends RecursiveAction
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final List<ComplexObject> sources;
+      private final List<ComplexObject> targets;
+      private final ComplexObject parentCopy;
+      private final int from;
+      private final int to;
+      private final int threshold;
+
+      ChildrenTask(List<ComplexObject> sources, List<ComplexObject> targets, ComplexObject parentCopy,
+                   int from, int to, int threshold) {
+         this.sources = sources;
+         this.targets = targets;
+         this.parentCopy = parentCopy;
+         this.from = from;
+         this.to = to;
+         this.threshold = threshold;
+      }
+
+      @Override
+      protected void compute() {
+         if (to - from <= threshold) {
+            for (int i = from; i < to; i++) {
+               targets.set(i, copyNode(sources.get(i), parentCopy, threshold));
+            }
+            return;
+         }
+         int middle = (from + to) >>> 1;
+         invokeAll(new ChildrenTask(sources, targets, parentCopy, from, middle, threshold),
+                   new ChildrenTask(sources, targets, parentCopy, middle, to, threshold));
+      }
+   }
+}
@@ -0,0 +1,120 @@
+package copying;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, structurally shared counterpart of ComplexObject.
+ * <p>
+ * A "copy" is the node itself, since nothing reachable from it can change. Edits address a node by its path of child
+ * indexes from the root and return a new root; only the nodes along that path are copied, every other subtree is
+ * shared with the previous version.
+ * <p>
+ * Nodes have no parent field: a shared subtree can belong to several versions at once, so its parent is only defined
+ * relative to the path it was reached through.
+ */
+public final class PersistentComplexObject
+{
+   private static final PersistentComplexObject[] NO_CHILDREN = new PersistentComplexObject[0];
+
+   private final String name;
+   private final int age;
+   private final List<String> hobbies;
+   private final PersistentComplexObject[] children;
+
+   public PersistentComplexObject(String name, int age, List<String> hobbies, List<PersistentComplexObject> children) {
+      this(name, age, List.copyOf(hobbies), children.toArray(NO_CHILDREN));
+   }
+
+   private PersistentComplexObject(String name, int age, List<String> hobbies, PersistentComplexObject[] children) {
+      this.name = name;
+      this.age = age;
+      this.hobbies = hobbies;
+      this.children = children;
+   }
+
+   /**
+    * Converts a mutable tree. The parent references of the source are implied by the resulting tree structure.
+    */
+   public static PersistentComplexObject from(ComplexObject source) {
+      List<ComplexObject> sourceChildren = source.getChildren();
+      PersistentComplexObject[] children = NO_CHILDREN;
+      if (sourceChildren != null && !sourceChildren.isEmpty()) {
+         children = new PersistentComplexObject[sourceChildren.size()];
+         for (int i = 0; i < children.length; i++) {
+            children[i] = from(sourceChildren.get(i));
+         }
+      }
+      return new PersistentComplexObject(source.getName(), source.getAge(), List.copyOf(source.getHobbies()), children);
+   }
+
+   public String getName() {
+      return name;
+   }
+
+   public int getAge() {
+      return age;
+   }
+
+   public List<String> getHobbies() {
+      return hobbies;
+   }
+
+   public int getChildCount() {
+      return children.length;
+   }
+
+   public PersistentComplexObject getChild(int index) {
+      return children[index];
+   }
+
+   public List<PersistentComplexObject> getChildren() {
+      return List.of(children);
+   }
+
+   /**
+    * O(1) copy: the returned version can never observe edits made through other versions.
+    */
+   public PersistentComplexObject copy() {
+      return this;
+   }
+
+   public PersistentComplexObject nodeAt(int[] path) {
+      PersistentComplexObject node = this;
+      for (int index : path) {
+         node = node.children[index];
+      }
+      return node;
+   }
+
+   public PersistentComplexObject withAge(int age) {
+      return age == this.age ? this : new PersistentComplexObject(name, age, hobbies, children);
+   }
+
+   public PersistentComplexObject withHobbies(List<String> hobbies) {
+      return new PersistentComplexObject(name, age, List.copyOf(hobbies), children);
+   }
+
+   /**
+    * Returns a new root in which the node at the given path has the given age.
+    * Copies one node per level of the path; all siblings along the way are shared.
+    */
+   public PersistentComplexObject withAge(int[] path, int age) {
+      return withAge(path, 0, age);
+   }
+
+   private PersistentComplexObject withAge(int[] path, int level, int age) {
+      if (level == path.length) {
+         return withAge(age);
+      }
+      int index = path[level];
+      PersistentComplexObject child = children[index];
+      PersistentComplexObject updated = child.withAge(path, level + 1, age);
+      if (updated == child) {
+         return this;
+      }
+      PersistentComplexObject[] newChildren = Arrays.copyOf(children, children.length);
+      newChildren[index] = updated;
+      return new PersistentComplexObject(name, this.age, hobbies, newChildren);
+   }
+}
@@ -9,6 +9,12 @@ import java.io.Serializable;
 
 public class SerialDeepClone
 {
+   // Buffers that grew past this are not kept, so one huge graph doesn't pin its buffer for the thread's lifetime.
+   private static final int MAX_RETAINED_BYTES = 16 * 1024 * 1024;
+
+   private static final ThreadLocal<ReusableByteArrayOutputStream> BUFFERS =
+         ThreadLocal.withInitial(ReusableByteArrayOutputStream::new);
+
    public static <T extends Serializable> T deepCloneSerial(T object) throws IOException, ClassNotFoundException {
       ByteArrayOutputStream baos = new ByteArrayOutputStream();
       ObjectOutputStream oos = new ObjectOutputStream(baos);
@@ -24,4 +30,51 @@ public class SerialDeepClone
       bais.close();
       return copy;
    }
+
+   /**
+    * Same as deepCloneSerial, but writes into a thread-local buffer that is reused across calls and reads straight
+    * out of that buffer instead of copying it with toByteArray().
+    */
+   public static <T extends Serializable> T deepCloneSerialPooled(T object) throws IOException, ClassNotFoundException {
+      ReusableByteArrayOutputStream buffer = BUFFERS.get();
+      buffer.reset();
+      try {
+         try (ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+            oos.writeObject(object);
+         }
+         try (ObjectInputStream ois = new ObjectInputStream(buffer.toInputStream())) {
+            @SuppressWarnings("unchecked")
+            T copy = (T) ois.readObject();
+            return copy;
+         }
+      }
+      finally {
+         if (buffer.capacity() > MAX_RETAINED_BYTES) {
+            BUFFERS.remove();
+         }
+      }
+   }
+
+   /**
+    * Pooled clone of a ComplexObject graph that goes through the hand-written Externalizable form instead of
+    * default field serialization.
+    */
+   public static ComplexObject deepCloneExternalizable(ComplexObject object) throws IOException, ClassNotFoundException {
+      return deepCloneSerialPooled(new ExternalizableComplexObject(object)).getRoot();
+   }
+
+   private static final class ReusableByteArrayOutputStream extends ByteArrayOutputStream
+   {
+      ReusableByteArrayOutputStream() {
+         super(4096);
+      }
+
+      int capacity() {
+         return buf.length;
+      }
+
+      ByteArrayInputStream toInputStream() {
+         return new ByteArrayInputStream(buf, 0, count);
+      }
+   }
 }
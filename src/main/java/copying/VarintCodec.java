@@ -0,0 +1,223 @@
+package copying;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written compact binary codec for ComplexObject graphs.
+ * <p>
+ * Integers are LEB128 varints (zig-zag for ages). Nodes, hobby lists and strings are each written once and then
+ * referred to by handle, so parent back-references and shared hobby lists survive the round trip and repeated hobby
+ * names cost a byte or two instead of the full string.
+ * <p>
+ * Every reference is a tag: 0 = null, 1 = a new value follows, n + 2 = the value with handle n.
+ */
+public class VarintCodec implements CloneCodec
+{
+   private static final int NULL = 0;
+   private static final int NEW = 1;
+   private static final int FIRST_HANDLE = 2;
+
+   @Override
+   public byte[] encode(ComplexObject root) {
+      Encoder encoder = new Encoder();
+      encoder.writeNode(root);
+      return encoder.toByteArray();
+   }
+
+   @Override
+   public ComplexObject decode(byte[] bytes) {
+      return new Decoder(bytes).readNode();
+   }
+
+   private static final class Encoder
+   {
+      private final Map<ComplexObject, Integer> nodes = new IdentityHashMap<>();
+      private final Map<List<String>, Integer> hobbyLists = new IdentityHashMap<>();
+      private final Map<String, Integer> strings = new HashMap<>();
+      private byte[] buffer = new byte[256];
+      private int position;
+
+      void writeNode(ComplexObject node) {
+         if (writeReference(node, nodes)) {
+            return;
+         }
+         writeString(node.getName());
+         writeVarint((node.getAge() << 1) ^ (node.getAge() >> 31));
+         writeHobbies(node.getHobbies());
+         writeNode(node.getParent());
+
+         List<ComplexObject> children = node.getChildren();
+         if (children == null) {
+            writeVarint(0);
+            return;
+         }
+         writeVarint(children.size() + 1);
+         for (ComplexObject child : children) {
+            writeNode(child);
+         }
+      }
+
+      private void writeHobbies(List<String> hobbies) {
+         if (writeReference(hobbies, hobbyLists)) {
+            return;
+         }
+         writeVarint(hobbies.size());
+         for (String hobby : hobbies) {
+            writeString(hobby);
+         }
+      }
+
+      private void writeString(String value) {
+         if (writeReference(value, strings)) {
+            return;
+         }
+         int length = value.length();
+         ensureCapacity(5 + length);
+         int start = position;
+         writeVarint(length);
+         for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+               // Not ASCII: rewind and fall back to the JDK encoder.
+               position = start;
+               byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+               writeVarint(utf8.length);
+               ensureCapacity(utf8.length);
+               System.arraycopy(utf8, 0, buffer, position, utf8.length);
+               position += utf8.length;
+               return;
+            }
+            buffer[position++] = (byte) c;
+         }
+      }
+
+      /**
+       * Writes the tag for a value. Returns true if nothing else needs to be written (null or already seen).
+       */
+      private <T> boolean writeReference(T value, Map<T, Integer> handles) {
+         if (value == null) {
+            writeVarint(NULL);
+            return true;
+         }
+         Integer handle = handles.get(value);
+         if (handle != null) {
+            writeVarint(handle + FIRST_HANDLE);
+            return true;
+         }
+         handles.put(value, handles.size());
+         writeVarint(NEW);
+         return false;
+      }
+
+      private void writeVarint(int value) {
+         ensureCapacity(5);
+         while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+         }
+         buffer[position++] = (byte) value;
+      }
+
+      private void ensureCapacity(int extra) {
+         if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+         }
+      }
+
+      byte[] toByteArray() {
+         return Arrays.copyOf(buffer, position);
+      }
+   }
+
+   private static final class Decoder
+   {
+      private final List<ComplexObject> nodes = new ArrayList<>();
+      private final List<List<String>> hobbyLists = new ArrayList<>();
+      private final List<String> strings = new ArrayList<>();
+      private final byte[] buffer;
+      private int position;
+
+      Decoder(byte[] buffer) {
+         this.buffer = buffer;
+      }
+
+      ComplexObject readNode() {
+         int tag = readVarint();
+         if (tag == NULL) {
+            return null;
+         }
+         if (tag != NEW) {
+            return nodes.get(tag - FIRST_HANDLE);
+         }
+         String name = readString();
+         int zigzag = readVarint();
+         int age = (zigzag >>> 1) ^ -(zigzag & 1);
+         List<String> hobbies = readHobbies();
+         ComplexObject node = new ComplexObject(name, age, hobbies, null, null);
+         // Register before reading references so the children's parent field resolves to this node.
+         nodes.add(node);
+         node.setParent(readNode());
+
+         int childCount = readVarint() - 1;
+         if (childCount >= 0) {
+            List<ComplexObject> children = new ArrayList<>(childCount);
+            for (int i = 0; i < childCount; i++) {
+               children.add(readNode());
+            }
+            node.setChildren(children);
+         }
+         return node;
+      }
+
+      private List<String> readHobbies() {
+         int tag = readVarint();
+         if (tag == NULL) {
+            return null;
+         }
+         if (tag != NEW) {
+            return hobbyLists.get(tag - FIRST_HANDLE);
+         }
+         int size = readVarint();
+         List<String> hobbies = new ArrayList<>(size);
+         hobbyLists.add(hobbies);
+         for (int i = 0; i < size; i++) {
+            hobbies.add(readString());
+         }
+         return hobbies;
+      }
+
+      private String readString() {
+         int tag = readVarint();
+         if (tag == NULL) {
+            return null;
+         }
+         if (tag != NEW) {
+            return strings.get(tag - FIRST_HANDLE);
+         }
+         int length = readVarint();
+         String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+         position += length;
+         strings.add(value);
+         return value;
+      }
+
+      private int readVarint() {
+         int value = 0;
+         int shift = 0;
+         byte b;
+         do {
+            b = buffer[position++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+         }
+         while (b < 0);
+         return value;
+      }
+   }
+}
@@ -11,6 +11,8 @@ public class BenchmarkRunner {
     public static void main(String[] args) throws Exception {
         Options opt = new OptionsBuilder()
                 .include(FlowControlStrings.class.getSimpleName())
+                .include(PrebuiltLookups.class.getSimpleName())
+                .include(KeyDistributions.class.getSimpleName())
                 .forks(1)
                 .build();
 
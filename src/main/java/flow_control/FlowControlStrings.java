@@ -7,6 +7,7 @@ import java.util.concurrent.TimeUnit;
 
 import static flow_control.StringConstants.concatStringConstants;
 import static flow_control.StringConstants.getRandomWords;
+import static flow_control.StringSwitch.evaluateDispatcher;
 import static flow_control.StringSwitch.evaluateSwitch;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -66,6 +67,16 @@ public class FlowControlStrings
         blackhole.consume(evaluateSwitch(data.toFind));
     }
 
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void perfectHashFlow(Data data, Blackhole blackhole) {
+        blackhole.consume(evaluateDispatcher(data.toFind));
+    }
+
     /**
      * @param data The provided state for the current benchmark run.
      * @param blackhole The method's consumer to prevent automatic optimization.
@@ -0,0 +1,101 @@
+package flow_control;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Distributions for drawing lookup probes from a key set.
+ * <p>
+ * A share of probes given by the miss ratio are misses; the rest are hits drawn by the distribution.
+ * For ADVERSARIAL, every miss has the same String.hashCode as one of the keys, so hash-based lookups can't reject it
+ * without a full equals. Its hits are uniform, but each one is a new String equal to a key rather than the key
+ * instance itself, so equals can't return on identity either and compares every char, even without misses.
+ */
+public enum KeyDistribution
+{
+   UNIFORM,
+   ZIPFIAN,
+   ADVERSARIAL;
+
+   private static final double ZIPF_EXPONENT = 1.0;
+
+   /**
+    * Generates probes for per-invocation lookups.
+    *
+    * @param keys The key set to draw hits from, most popular first for ZIPFIAN.
+    * @param missRatio Fraction of probes that are not in the key set.
+    * @param numProbes Number of probes to generate.
+    * @param seed Seed for a reproducible sequence.
+    */
+   public String[] generate(String[] keys, double missRatio, int numProbes, long seed) {
+      Random random = new Random(seed);
+      Set<String> keySet = new HashSet<>(Arrays.asList(keys));
+      double[] cumulative = this == ZIPFIAN ? zipfCumulative(keys.length) : null;
+
+      String[] probes = new String[numProbes];
+      for (int i = 0; i < numProbes; i++) {
+         if (random.nextDouble() < missRatio) {
+            probes[i] = miss(keys, keySet, random);
+         }
+         else if (cumulative != null) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            probes[i] = keys[Math.min(rank < 0 ? -rank - 1 : rank, keys.length - 1)];
+         }
+         else if (this == ADVERSARIAL) {
+            probes[i] = new String(keys[random.nextInt(keys.length)]);
+         }
+         else {
+            probes[i] = keys[random.nextInt(keys.length)];
+         }
+      }
+      return probes;
+   }
+
+   private String miss(String[] keys, Set<String> keySet, Random random) {
+      if (this == ADVERSARIAL) {
+         return hashCollision(keys[random.nextInt(keys.length)]);
+      }
+      String candidate;
+      do {
+         candidate = StringConstants.randomKey(random);
+      }
+      while (keySet.contains(candidate));
+      return candidate;
+   }
+
+   /**
+    * Returns a different string with the same hashCode: raising one char by 1 and lowering the next by 31 leaves
+    * the polynomial hash unchanged. The result contains a non-letter, so it's never one of the generated keys.
+    */
+   static String hashCollision(String key) {
+      if (key.length() < 2) {
+         throw new IllegalArgumentException("Need at least two chars to build a collision: " + key);
+      }
+      char[] chars = key.toCharArray();
+      int last = chars.length - 1;
+      if (chars[last] >= 31) {
+         chars[last - 1]++;
+         chars[last] -= 31;
+      }
+      else {
+         chars[last - 1]--;
+         chars[last] += 31;
+      }
+      return new String(chars);
+   }
+
+   private static double[] zipfCumulative(int n) {
+      double[] cumulative = new double[n];
+      double sum = 0;
+      for (int rank = 0; rank < n; rank++) {
+         sum += 1.0 / Math.pow(rank + 1, ZIPF_EXPONENT);
+         cumulative[rank] = sum;
+      }
+      for (int rank = 0; rank < n; rank++) {
+         cumulative[rank] /= sum;
+      }
+      return cumulative;
+   }
+}
@@ -0,0 +1,154 @@
+package flow_control;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static flow_control.StringConstants.WORD_LIST;
+import static flow_control.StringConstants.concatStringConstants;
+import static flow_control.StringSwitch.evaluateDispatcher;
+import static flow_control.StringSwitch.evaluateSwitch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The WORD_LIST lookup strategies under skewed, missing and hash-colliding probe distributions.
+ * <p>
+ * Unlike FlowControlStrings, which looks up one word per iteration, every invocation here takes the next probe from a
+ * pre-generated array, so the branch predictor can't learn a single answer. Subtract the probeOnly baseline to get
+ * the cost of the lookup itself.
+ *
+ * @author Christian Wesseler
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 10, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class KeyDistributions
+{
+    // Power of two, and large enough that the sequence doesn't repeat within the predictor's history.
+    private static final int NUM_PROBES = 1 << 16;
+
+    /**
+     * Configures the probe distribution and builds the lookup structures once.
+     */
+    @State(Scope.Thread)
+    public static class Data {
+        @Param({"UNIFORM", "ZIPFIAN", "ADVERSARIAL"})
+        private KeyDistribution distribution;
+
+        @Param({"0.0", "0.3"})
+        private double missRatio;
+
+        private final List<String> list = Arrays.asList(WORD_LIST);
+        private final Set<String> set = Set.of(WORD_LIST);
+        private final Set<String> hashSet = new HashSet<>(list);
+        private final Pattern pattern = Pattern.compile(concatStringConstants());
+
+        private String[] probes;
+        private int index;
+
+        @Setup(Level.Trial)
+        public void trialSetup() {
+            probes = distribution.generate(WORD_LIST, missRatio, NUM_PROBES, 42L);
+        }
+
+        String next() {
+            index = (index + 1) & (NUM_PROBES - 1);
+            return probes[index];
+        }
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void probeOnly(Data data, Blackhole blackhole) {
+        blackhole.consume(data.next());
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void switchFlow(Data data, Blackhole blackhole) {
+        blackhole.consume(evaluateSwitch(data.next()));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void perfectHashFlow(Data data, Blackhole blackhole) {
+        blackhole.consume(evaluateDispatcher(data.next()));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void listContainsFlow(Data data, Blackhole blackhole) {
+        blackhole.consume(data.list.contains(data.next()));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void setContainsFlow(Data data, Blackhole blackhole) {
+        blackhole.consume(data.set.contains(data.next()));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void hashSetContainsFlow(Data data, Blackhole blackhole) {
+        blackhole.consume(data.hashSet.contains(data.next()));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void matchesFlow(Data data, Blackhole blackhole) {
+        blackhole.consume(data.pattern.matcher(data.next()).matches());
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void anyOfFlow(Data data, Blackhole blackhole) {
+        blackhole.consume(StringSwitch.anyOf(data.next(), WORD_LIST));
+    }
+}
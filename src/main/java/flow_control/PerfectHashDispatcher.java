@@ -0,0 +1,181 @@
+package flow_control;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps a fixed set of short string keys to values through a perfect hash, built once from the key set.
+ * <p>
+ * Keys are packed into a single long (up to 7 Latin-1 chars, one byte each, plus the length in the top byte), so a
+ * lookup is: pack the input, hash it twice, and compare one long. There are no collisions to resolve and nothing is
+ * allocated. The hash is built with "hash and displace": keys are grouped into buckets by a first hash, and each bucket
+ * gets a seed for a second hash that sends all of its keys to free slots.
+ * <p>
+ * The slot table is kept at a power of two of at least 1.25x the key count, so it is perfect but not minimal.
+ */
+public class PerfectHashDispatcher<V>
+{
+   public static final int MAX_KEY_LENGTH = 7;
+
+   private static final long EMPTY = -1L;
+   private static final int MAX_SEED_ATTEMPTS = 1 << 20;
+
+   private final long[] keys;
+   private final Object[] values;
+   private final int[] seeds;
+   private final int slotMask;
+   private final int bucketMask;
+
+   private PerfectHashDispatcher(long[] keys, Object[] values, int[] seeds) {
+      this.keys = keys;
+      this.values = values;
+      this.seeds = seeds;
+      this.slotMask = keys.length - 1;
+      this.bucketMask = seeds.length - 1;
+   }
+
+   /**
+    * Builds a dispatcher for the given mapping.
+    *
+    * @throws IllegalArgumentException if a key is longer than 7 chars or contains a char outside Latin-1.
+    */
+   public static <V> PerfectHashDispatcher<V> of(Map<String, V> mapping) {
+      long[] packedKeys = new long[mapping.size()];
+      Object[] mappedValues = new Object[mapping.size()];
+      int n = 0;
+      for (Map.Entry<String, V> entry : mapping.entrySet()) {
+         long packed = pack(entry.getKey());
+         if (packed == EMPTY) {
+            throw new IllegalArgumentException("Unsupported key: " + entry.getKey());
+         }
+         packedKeys[n] = packed;
+         mappedValues[n] = entry.getValue();
+         n++;
+      }
+
+      int slots = Integer.highestOneBit(Math.max(1, n + (n >> 2)) * 2 - 1);
+      while (true) {
+         PerfectHashDispatcher<V> dispatcher = tryBuild(packedKeys, mappedValues, slots);
+         if (dispatcher != null) {
+            return dispatcher;
+         }
+         slots <<= 1;
+      }
+   }
+
+   /**
+    * @return The mapped value, or null if the input is not one of the keys.
+    */
+   public V get(String input) {
+      long packed = pack(input);
+      if (packed == EMPTY) {
+         return null;
+      }
+      int slot = slot(packed, seeds[bucket(packed)]);
+      if (keys[slot] != packed) {
+         return null;
+      }
+      @SuppressWarnings("unchecked")
+      V value = (V) values[slot];
+      return value;
+   }
+
+   public boolean containsKey(String input) {
+      long packed = pack(input);
+      return packed != EMPTY && keys[slot(packed, seeds[bucket(packed)])] == packed;
+   }
+
+   private static <V> PerfectHashDispatcher<V> tryBuild(long[] packedKeys, Object[] mappedValues, int slotCount) {
+      // About four keys per bucket keeps the seed search short.
+      int bucketCount = Integer.highestOneBit(Math.max(1, packedKeys.length / 4) * 2 - 1);
+      List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+      for (int i = 0; i < bucketCount; i++) {
+         buckets.add(new ArrayList<>());
+      }
+      for (int i = 0; i < packedKeys.length; i++) {
+         buckets.get((int) mix(packedKeys[i], 0) & (bucketCount - 1)).add(i);
+      }
+
+      Integer[] order = new Integer[bucketCount];
+      Arrays.setAll(order, i -> i);
+      // Place the largest buckets first, while the table is still mostly empty.
+      Arrays.sort(order, (a, b) -> buckets.get(b).size() - buckets.get(a).size());
+
+      long[] keys = new long[slotCount];
+      Arrays.fill(keys, EMPTY);
+      Object[] values = new Object[slotCount];
+      int[] seeds = new int[bucketCount];
+      int[] placed = new int[packedKeys.length];
+
+      for (int bucket : order) {
+         List<Integer> members = buckets.get(bucket);
+         if (members.isEmpty()) {
+            break;
+         }
+         boolean found = false;
+         for (int seed = 1; seed < MAX_SEED_ATTEMPTS && !found; seed++) {
+            found = true;
+            for (int m = 0; m < members.size(); m++) {
+               int slot = (int) mix(packedKeys[members.get(m)], seed) & (slotCount - 1);
+               boolean taken = keys[slot] != EMPTY;
+               for (int previous = 0; previous < m && !taken; previous++) {
+                  taken = placed[previous] == slot;
+               }
+               if (taken) {
+                  found = false;
+                  break;
+               }
+               placed[m] = slot;
+            }
+            if (found) {
+               seeds[bucket] = seed;
+               for (int m = 0; m < members.size(); m++) {
+                  keys[placed[m]] = packedKeys[members.get(m)];
+                  values[placed[m]] = mappedValues[members.get(m)];
+               }
+            }
+         }
+         if (!found) {
+            return null;
+         }
+      }
+      return new PerfectHashDispatcher<>(keys, values, seeds);
+   }
+
+   private int bucket(long packed) {
+      return (int) mix(packed, 0) & bucketMask;
+   }
+
+   private int slot(long packed, int seed) {
+      return (int) mix(packed, seed) & slotMask;
+   }
+
+   /**
+    * Packs up to 7 Latin-1 chars and the length into a long, or returns EMPTY if the string can't be packed.
+    * EMPTY can never be a valid key since the length byte of a packed key is at most 7.
+    */
+   static long pack(String input) {
+      int length = input.length();
+      if (length > MAX_KEY_LENGTH) {
+         return EMPTY;
+      }
+      long packed = (long) length << 56;
+      for (int i = 0; i < length; i++) {
+         char c = input.charAt(i);
+         if (c > 0xFF) {
+            return EMPTY;
+         }
+         packed |= (long) c << (i << 3);
+      }
+      return packed;
+   }
+
+   private static long mix(long value, int seed) {
+      long h = (value ^ (seed * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+      h ^= h >>> 31;
+      h *= 0x94D049BB133111EBL;
+      return h ^ (h >>> 29);
+   }
+}
@@ -0,0 +1,179 @@
+package flow_control;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static flow_control.StringConstants.getRandomKeys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The lookup strategies of FlowControlStrings, each measured twice: building the lookup structure on every call
+ * (as FlowControlStrings does) and using one built once up front.
+ * <p>
+ * Notes:
+ * The difference between each *Built variant and its prebuilt counterpart is the cost of constructing the lookup,
+ * which is paid on every call.
+ *
+ * @author Christian Wesseler
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 10, time = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PrebuiltLookups
+{
+    /**
+     * Configures the key set and builds every lookup structure once.
+     */
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"10", "100", "1000", "10000"})
+        private int numKeys;
+
+        private String[] keys;
+        private String alternation;
+
+        private List<String> list;
+        private Set<String> set;
+        private Pattern pattern;
+        private PerfectHashDispatcher<Boolean> dispatcher;
+
+        private final Random random = new Random();
+        private String toFind;
+
+        @Setup(Level.Trial)
+        public void trialSetup() {
+            keys = getRandomKeys(numKeys);
+            alternation = String.join("|", keys);
+
+            list = Arrays.asList(keys);
+            set = Set.of(keys);
+            pattern = Pattern.compile(alternation);
+            Map<String, Boolean> mapping = new HashMap<>();
+            for (String key : keys) {
+                mapping.put(key, Boolean.TRUE);
+            }
+            dispatcher = PerfectHashDispatcher.of(mapping);
+        }
+
+        /**
+         * Picks a random key to look up.
+         */
+        @Setup(Level.Iteration)
+        public void setup() {
+            toFind = keys[random.nextInt(keys.length)];
+        }
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void listContainsBuilt(Data data, Blackhole blackhole) {
+        blackhole.consume(Arrays.asList(data.keys).contains(data.toFind));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void listContainsPrebuilt(Data data, Blackhole blackhole) {
+        blackhole.consume(data.list.contains(data.toFind));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void setContainsBuilt(Data data, Blackhole blackhole) {
+        blackhole.consume(Set.of(data.keys).contains(data.toFind));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void setContainsPrebuilt(Data data, Blackhole blackhole) {
+        blackhole.consume(data.set.contains(data.toFind));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void matchesBuilt(Data data, Blackhole blackhole) {
+        blackhole.consume(data.toFind.matches(data.alternation));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void matchesPrebuilt(Data data, Blackhole blackhole) {
+        blackhole.consume(data.pattern.matcher(data.toFind).matches());
+    }
+
+    /**
+     * Builds the argument array per call, as the varargs call in FlowControlStrings.matchingAnyListFlow does.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void anyListBuilt(Data data, Blackhole blackhole) {
+        String[] elems = new String[data.keys.length + 1];
+        elems[0] = data.toFind;
+        System.arraycopy(data.keys, 0, elems, 1, data.keys.length);
+        blackhole.consume(StringSwitch.anyList(elems));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void anyListPrebuilt(Data data, Blackhole blackhole) {
+        blackhole.consume(StringSwitch.anyOf(data.toFind, data.keys));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @SuppressWarnings("all")
+    public static void perfectHashPrebuilt(Data data, Blackhole blackhole) {
+        blackhole.consume(data.dispatcher.get(data.toFind));
+    }
+}
@@ -2,8 +2,10 @@ package flow_control;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 public class StringConstants
 {
@@ -32,6 +34,26 @@ public class StringConstants
       return randomWords;
    }
 
+   /**
+    * Generates distinct 4-char upper-case keys in the style of WORD_LIST, starting with the WORD_LIST keys themselves.
+    */
+   public static String[] getRandomKeys(int numKeys) {
+      Random random = new Random(numKeys);
+      Set<String> keys = new LinkedHashSet<>(Arrays.asList(WORD_LIST).subList(0, Math.min(numKeys, WORD_LIST.length)));
+      while (keys.size() < numKeys) {
+         keys.add(randomKey(random));
+      }
+      return keys.toArray(new String[0]);
+   }
+
+   static String randomKey(Random random) {
+      char[] chars = new char[4];
+      for (int i = 0; i < chars.length; i++) {
+         chars[i] = (char) ('A' + random.nextInt(26));
+      }
+      return new String(chars);
+   }
+
    public static String concatStringConstants() {
       StringBuilder builder = new StringBuilder();
       for (String word : WORD_LIST) {
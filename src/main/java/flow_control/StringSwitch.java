@@ -1,7 +1,9 @@
 package flow_control;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -9,6 +11,9 @@ import static flow_control.StringConstants.*;
 
 public class StringSwitch
 {
+   // Same mapping as evaluateSwitch: the first five words map to true, the last five to false.
+   private static final PerfectHashDispatcher<Boolean> DISPATCHER = PerfectHashDispatcher.of(switchMapping());
+
    public static Boolean evaluateSwitch(String input)
    {
       switch(input)
@@ -30,6 +35,20 @@ public class StringSwitch
       }
    }
 
+   public static Boolean evaluateDispatcher(String input)
+   {
+      return DISPATCHER.get(input);
+   }
+
+   private static Map<String, Boolean> switchMapping()
+   {
+      Map<String, Boolean> mapping = new HashMap<>();
+      for (int i = 0; i < WORD_LIST.length; i++) {
+         mapping.put(WORD_LIST[i], i < WORD_LIST.length / 2);
+      }
+      return mapping;
+   }
+
    public static <T> boolean anyList(final T... elems)
    {
       T first = elems[0];
@@ -43,4 +62,17 @@ public class StringSwitch
       // if the loop completes without finding a match, return false
       return false;
    }
+
+   /**
+    * Same check as anyList, but against a prebuilt array instead of a varargs array allocated per call.
+    */
+   public static boolean anyOf(final String input, final String[] candidates)
+   {
+      for (String candidate : candidates) {
+         if (input.equals(candidate)) {
+            return true;
+         }
+      }
+      return false;
+   }
 }
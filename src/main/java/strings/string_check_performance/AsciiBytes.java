@@ -0,0 +1,91 @@
+package strings.string_check_performance;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Compares ASCII keys straight out of byte arrays and buffers, without decoding them into Strings first.
+ * <p>
+ * All methods compare a region of the input against a key; none of them allocate.
+ */
+public final class AsciiBytes {
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONGS_BIG_ENDIAN = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private AsciiBytes() {
+    }
+
+    /**
+     * Compares eight bytes at a time as longs, then the remaining tail byte by byte.
+     */
+    public static boolean equalsPacked(byte[] bytes, int offset, int length, byte[] key) {
+        if (length != key.length) {
+            return false;
+        }
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            if ((long) LONGS.get(bytes, offset + i) != (long) LONGS.get(key, i)) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (bytes[offset + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares with the JDK's range equals, which is backed by the vectorized mismatch intrinsic.
+     */
+    public static boolean equalsMismatch(byte[] bytes, int offset, int length, byte[] key) {
+        return Arrays.equals(bytes, offset, offset + length, key, 0, key.length);
+    }
+
+    /**
+     * Compares the buffer's remaining bytes with the key, eight bytes at a time. Doesn't move the buffer's position.
+     */
+    public static boolean equals(ByteBuffer buffer, byte[] key) {
+        int position = buffer.position();
+        int length = buffer.remaining();
+        if (length != key.length) {
+            return false;
+        }
+        if (buffer.hasArray()) {
+            return equalsPacked(buffer.array(), buffer.arrayOffset() + position, length, key);
+        }
+        // Read the key in the buffer's byte order rather than changing the order of a buffer we don't own.
+        VarHandle keyLongs = buffer.order() == ByteOrder.LITTLE_ENDIAN ? LONGS : LONGS_BIG_ENDIAN;
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            if (buffer.getLong(position + i) != (long) keyLongs.get(key, i)) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (buffer.get(position + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares the bytes with a String key char by char, for callers that only hold the key as a String.
+     */
+    public static boolean equals(byte[] bytes, int offset, int length, String key) {
+        if (length != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if ((bytes[offset + i] & 0xFF) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
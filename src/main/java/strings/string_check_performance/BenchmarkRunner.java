@@ -11,6 +11,8 @@ public class BenchmarkRunner {
     public static void main(String[] args) throws Exception {
         Options opt = new OptionsBuilder()
                 .include(StringEqualsMultiple.class.getSimpleName())
+                .include(RegexCache.class.getSimpleName())
+                .include(ByteKeyEquals.class.getSimpleName())
                 .forks(1)
                 .build();
 
@@ -0,0 +1,138 @@
+package strings.string_check_performance;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A comparison of methods for checking an ASCII key that arrives as bytes (ie a field in a network message) against
+ * a known key.
+ * <p>
+ * Notes:
+ * The byte-level checks (Arrays.equals ranges, packed longs) compare in place, while the String-based ones decode the
+ * bytes into a new String first, which adds an allocation and a copy to every check.
+ *
+ * @author Christian Wesseler
+ */
+public class ByteKeyEquals {
+    // The key doesn't start at the beginning of the message, so reads are unaligned as they would be on the wire.
+    private static final int KEY_OFFSET = 3;
+
+    /**
+     * Defines a message with an embedded key, and the same key as bytes, as a String and as buffers.
+     */
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"4", "8", "16", "32", "64"})
+        private int keyLength;
+
+        String keyString;
+        byte[] keyBytes;
+        byte[] message;
+        ByteBuffer heapSlice;
+        ByteBuffer directSlice;
+
+        /**
+         * Generates the key and the message containing it.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            keyString = RandomStringUtils.randomAlphanumeric(keyLength);
+            keyBytes = keyString.getBytes(StandardCharsets.US_ASCII);
+
+            message = new byte[KEY_OFFSET + keyLength + 8];
+            System.arraycopy(keyBytes, 0, message, KEY_OFFSET, keyLength);
+
+            heapSlice = ByteBuffer.wrap(message, KEY_OFFSET, keyLength).slice();
+            ByteBuffer direct = ByteBuffer.allocateDirect(message.length);
+            direct.put(message).flip();
+            directSlice = direct.position(KEY_OFFSET).limit(KEY_OFFSET + keyLength).slice();
+        }
+    }
+
+    /**
+     * Decodes the key into a String, then uses String.equals.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void decodeThenEquals(Data data, Blackhole blackhole) {
+        String decoded = new String(data.message, KEY_OFFSET, data.keyLength, StandardCharsets.US_ASCII);
+        blackhole.consume(decoded.equals(data.keyString));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void bytesEqualsString(Data data, Blackhole blackhole) {
+        blackhole.consume(AsciiBytes.equals(data.message, KEY_OFFSET, data.keyLength, data.keyString));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void bytesEqualsMismatch(Data data, Blackhole blackhole) {
+        blackhole.consume(AsciiBytes.equalsMismatch(data.message, KEY_OFFSET, data.keyLength, data.keyBytes));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void bytesEqualsPacked(Data data, Blackhole blackhole) {
+        blackhole.consume(AsciiBytes.equalsPacked(data.message, KEY_OFFSET, data.keyLength, data.keyBytes));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void heapBufferEquals(Data data, Blackhole blackhole) {
+        blackhole.consume(AsciiBytes.equals(data.heapSlice, data.keyBytes));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void directBufferEquals(Data data, Blackhole blackhole) {
+        blackhole.consume(AsciiBytes.equals(data.directSlice, data.keyBytes));
+    }
+}
@@ -0,0 +1,157 @@
+package strings.string_check_performance;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.TreeSet;
+
+/**
+ * Matches input against a fixed set of literal strings, compiled once into an Aho-Corasick automaton.
+ * <p>
+ * Exact mode walks the trie and checks the final state; contains mode walks the full automaton (trie plus failure
+ * transitions folded into a dense table), so each input char costs one table lookup regardless of the number of
+ * literals. Neither mode allocates.
+ * <p>
+ * Chars are mapped to a compact alphabet of the chars that occur in the literals; Latin-1 chars through a table,
+ * anything else through a binary search.
+ */
+public final class MultiLiteralMatcher {
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private final int[] latin1Classes = new int[256];
+    private final char[] otherChars;
+    private final int otherClassBase;
+    private final int alphabetSize;
+
+    private final int[] trie;
+    private final int[] automaton;
+    private final boolean[] terminal;
+    private final boolean[] matchEndsHere;
+
+    private MultiLiteralMatcher(Collection<String> literals) {
+        TreeSet<Character> others = new TreeSet<>();
+        int classes = 1; // class 0 is "occurs in no literal"
+        for (String literal : literals) {
+            for (int i = 0; i < literal.length(); i++) {
+                char c = literal.charAt(i);
+                if (c < 256) {
+                    if (latin1Classes[c] == 0) {
+                        latin1Classes[c] = classes++;
+                    }
+                } else {
+                    others.add(c);
+                }
+            }
+        }
+        otherChars = new char[others.size()];
+        int o = 0;
+        for (char c : others) {
+            otherChars[o++] = c;
+        }
+        otherClassBase = classes;
+        alphabetSize = classes + otherChars.length;
+
+        // Build the trie.
+        int maxStates = 1;
+        for (String literal : literals) {
+            maxStates += literal.length();
+        }
+        int[] transitions = new int[maxStates * alphabetSize];
+        Arrays.fill(transitions, NONE);
+        boolean[] ends = new boolean[maxStates];
+        int states = 1;
+        for (String literal : literals) {
+            int state = ROOT;
+            for (int i = 0; i < literal.length(); i++) {
+                int index = state * alphabetSize + charClass(literal.charAt(i));
+                if (transitions[index] == NONE) {
+                    transitions[index] = states++;
+                }
+                state = transitions[index];
+            }
+            ends[state] = true;
+        }
+        trie = Arrays.copyOf(transitions, states * alphabetSize);
+        terminal = Arrays.copyOf(ends, states);
+
+        // Breadth-first over the trie to fold failure links into a complete transition table.
+        automaton = new int[states * alphabetSize];
+        matchEndsHere = Arrays.copyOf(ends, states);
+        int[] failure = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < alphabetSize; c++) {
+            int next = trie[c];
+            if (next == NONE) {
+                automaton[c] = ROOT;
+            } else {
+                automaton[c] = next;
+                failure[next] = ROOT;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matchEndsHere[state] |= matchEndsHere[failure[state]];
+            for (int c = 0; c < alphabetSize; c++) {
+                int index = state * alphabetSize + c;
+                int next = trie[index];
+                int fallback = automaton[failure[state] * alphabetSize + c];
+                if (next == NONE) {
+                    automaton[index] = fallback;
+                } else {
+                    automaton[index] = next;
+                    failure[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compiles the literals; the equivalent of the regex alternation literal1|literal2|... with quoted literals.
+     */
+    public static MultiLiteralMatcher compile(Collection<String> literals) {
+        return new MultiLiteralMatcher(literals);
+    }
+
+    /**
+     * @return Whether the whole input equals one of the literals.
+     */
+    public boolean matches(CharSequence input) {
+        int state = ROOT;
+        for (int i = 0, length = input.length(); i < length; i++) {
+            state = trie[state * alphabetSize + charClass(input.charAt(i))];
+            if (state == NONE) {
+                return false;
+            }
+        }
+        return terminal[state];
+    }
+
+    /**
+     * @return Whether any of the literals occurs somewhere in the input.
+     */
+    public boolean containsAny(CharSequence input) {
+        if (matchEndsHere[ROOT]) {
+            return true;
+        }
+        int state = ROOT;
+        for (int i = 0, length = input.length(); i < length; i++) {
+            state = automaton[state * alphabetSize + charClass(input.charAt(i))];
+            if (matchEndsHere[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int charClass(char c) {
+        if (c < 256) {
+            return latin1Classes[c];
+        }
+        int index = Arrays.binarySearch(otherChars, c);
+        return index < 0 ? 0 : otherClassBase + index;
+    }
+}
@@ -0,0 +1,115 @@
+package strings.string_check_performance;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * A thread-safe, size-bounded cache of compiled regex Patterns with least-recently-used eviction.
+ * <p>
+ * The cache is split into segments by regex hash, each an access-ordered LinkedHashMap behind its own lock, so
+ * threads looking up different patterns rarely contend. Compilation happens outside the lock; two threads missing on
+ * the same regex at once may both compile it, and one result wins. Eviction is per segment, so a skewed spread of
+ * hashes can evict a pattern slightly before the cache as a whole is full.
+ * <p>
+ * Use {@link #matches(String, String)} as a drop-in replacement for {@link String#matches(String)}.
+ */
+public final class PatternCache {
+    private static final int DEFAULT_MAX_SIZE = 1024;
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+    private static final PatternCache SHARED = new PatternCache(DEFAULT_MAX_SIZE);
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxSize Upper bound on the number of cached patterns, rounded up to a multiple of the segment count.
+     */
+    public PatternCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1: " + maxSize);
+        }
+        // Small segments evict unevenly, so only split once each segment holds at least MIN_SEGMENT_SIZE patterns.
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, maxSize / MIN_SEGMENT_SIZE)));
+        int segmentSize = (maxSize + segmentCount - 1) / segmentCount;
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+        segmentMask = segmentCount - 1;
+    }
+
+    /**
+     * Same result as {@code input.matches(regex)}, with the compiled pattern taken from a shared cache.
+     */
+    public static boolean matches(String input, String regex) {
+        return SHARED.pattern(regex).matcher(input).matches();
+    }
+
+    /**
+     * @return The shared cache used by {@link #matches(String, String)}, e.g. to read its counters.
+     */
+    public static PatternCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return The compiled pattern for the regex, compiling and caching it on a miss.
+     */
+    public Pattern pattern(String regex) {
+        int hash = regex.hashCode();
+        Segment segment = segments[(hash ^ (hash >>> 16)) & segmentMask];
+        Pattern pattern;
+        synchronized (segment) {
+            pattern = segment.get(regex);
+        }
+        if (pattern != null) {
+            hits.increment();
+            return pattern;
+        }
+        misses.increment();
+        pattern = Pattern.compile(regex);
+        synchronized (segment) {
+            segment.put(regex, pattern);
+        }
+        return pattern;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private static final class Segment extends LinkedHashMap<String, Pattern> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package strings.string_check_performance;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A comparison of String.matches (compiles on every call), a bounded PatternCache and precompiled Patterns,
+ * with several threads matching at once.
+ * <p>
+ * Notes:
+ * The distinctPatterns values put the working set well below (1, 64) and far above (4096) the cache's 256 slots.
+ * Beyond the cache size most lookups miss and compile the pattern again. matchesCached reports the cache's hits and misses as
+ * secondary results, so each score can be read against the hit rate it was measured at.
+ *
+ * @author Christian Wesseler
+ */
+public class RegexCache {
+    private static final int CACHE_SIZE = 256;
+
+    /**
+     * Defines the regexes in use, their precompiled patterns and the shared cache.
+     */
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"1", "64", "4096"})
+        private int distinctPatterns;
+
+        String[] regexes;
+        Pattern[] patterns;
+        String[] inputs;
+        PatternCache cache;
+
+        private final AtomicBoolean countersTaken = new AtomicBoolean();
+        private long hitsBefore;
+        private long missesBefore;
+
+        /**
+         * Generates the regexes and inputs and precompiles the patterns.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            regexes = new String[distinctPatterns];
+            patterns = new Pattern[distinctPatterns];
+            inputs = new String[distinctPatterns];
+            for (int i = 0; i < distinctPatterns; i++) {
+                regexes[i] = "Path" + i + "|Item" + i + "|Key" + i;
+                patterns[i] = Pattern.compile(regexes[i]);
+                inputs[i] = "Item" + i;
+            }
+            cache = new PatternCache(CACHE_SIZE);
+        }
+
+        /**
+         * Remembers the cache's counters at the start of each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void startIteration() {
+            hitsBefore = cache.hits();
+            missesBefore = cache.misses();
+            countersTaken.set(false);
+        }
+    }
+
+    /**
+     * Reports the cache's hits and misses during an iteration. The cache is shared, so only the first thread to
+     * finish the iteration reports them; the other threads report zero.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class CacheCounters {
+        public long hits;
+        public long misses;
+
+        /**
+         * Takes the counter deltas of the iteration, if no other thread took them yet.
+         */
+        @TearDown(Level.Iteration)
+        public void tearDown(Data data) {
+            if (data.countersTaken.compareAndSet(false, true)) {
+                hits = data.cache.hits() - data.hitsBefore;
+                misses = data.cache.misses() - data.missesBefore;
+            }
+        }
+    }
+
+    /**
+     * Walks through the regexes independently in each thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        int next(Data data) {
+            index = index + 1 == data.regexes.length ? 0 : index + 1;
+            return index;
+        }
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param cursor The calling thread's position in the regexes.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Threads(4)
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void matchesRuntimeCompile(Data data, Cursor cursor, Blackhole blackhole) {
+        int i = cursor.next(data);
+        blackhole.consume(data.inputs[i].matches(data.regexes[i]));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param cursor The calling thread's position in the regexes.
+     * @param counters Reports the cache's hits and misses.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Threads(4)
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void matchesCached(Data data, Cursor cursor, CacheCounters counters, Blackhole blackhole) {
+        int i = cursor.next(data);
+        blackhole.consume(data.cache.pattern(data.regexes[i]).matcher(data.inputs[i]).matches());
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param cursor The calling thread's position in the regexes.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Threads(4)
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void matchesPrecompiled(Data data, Cursor cursor, Blackhole blackhole) {
+        int i = cursor.next(data);
+        blackhole.consume(data.patterns[i].matcher(data.inputs[i]).matches());
+    }
+}
@@ -4,13 +4,16 @@ import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -18,7 +21,8 @@ import java.util.stream.Stream;
 /**
  * A comparison of methods for using string comparison as a switch (ie if inputString is either A || B || C).
  * <p>
- * Best performance: inputString.equals
+ * Best performance: inputString.equals for the three fixed alternatives. With more alternatives, MultiLiteralMatcher,
+ * whose cost grows far slower with their number than chained equals or a regex alternation does.
  *
  * @author Christian Wesseler
  */
@@ -41,6 +45,40 @@ public class StringEqualsMultiple {
         }
     }
 
+    /**
+     * Defines a configurable number of alternatives (Path1 ... PathN), compiled once for each strategy.
+     * The inputs hit the last alternative, the worst case for chained equals. The exact input is a copy rather than
+     * the alternative itself, so equals can't return on identity and compares the chars, as for a string read at
+     * runtime.
+     */
+    @State(Scope.Benchmark)
+    public static class MultiPatternData {
+        @Param({"3", "10", "100", "1000"})
+        private int patternCount;
+
+        String[] alternatives;
+        Pattern pattern;
+        MultiLiteralMatcher matcher;
+        String exactInput;
+        String containsInput;
+
+        /**
+         * Generates the alternatives and compiles the regex and the literal matcher.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<String> literals = new ArrayList<>(patternCount);
+            for (int i = 1; i <= patternCount; i++) {
+                literals.add("Path" + i);
+            }
+            alternatives = literals.toArray(new String[0]);
+            pattern = Pattern.compile(String.join("|", literals));
+            matcher = MultiLiteralMatcher.compile(literals);
+            exactInput = new String(alternatives[patternCount - 1]);
+            containsInput = "/api/v1/" + exactInput + "/resource";
+        }
+    }
+
     /**
      * Checks the string using regex with runtime compilation.
      *
@@ -110,4 +148,81 @@ public class StringEqualsMultiple {
     public static void stringEquals(Data data, Blackhole blackhole) {
         blackhole.consume(data.stringInput.equals("Path1") || data.stringInput.equals("Path2") || data.stringInput.equals("Path3"));
     }
+
+    /**
+     * Checks the string against every alternative with equals.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void multiStringEquals(MultiPatternData data, Blackhole blackhole) {
+        boolean found = false;
+        for (String alternative : data.alternatives) {
+            if (data.exactInput.equals(alternative)) {
+                found = true;
+                break;
+            }
+        }
+        blackhole.consume(found);
+    }
+
+    /**
+     * Checks the string against the alternatives with precompiled regex.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void multiMatchesPrecompiled(MultiPatternData data, Blackhole blackhole) {
+        blackhole.consume(data.pattern.matcher(data.exactInput).matches());
+    }
+
+    /**
+     * Checks the string against the alternatives with the compiled literal matcher.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void multiLiteralMatches(MultiPatternData data, Blackhole blackhole) {
+        blackhole.consume(data.matcher.matches(data.exactInput));
+    }
+
+    /**
+     * Checks whether any alternative occurs in a longer string, using precompiled regex.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void multiFindPrecompiled(MultiPatternData data, Blackhole blackhole) {
+        blackhole.consume(data.pattern.matcher(data.containsInput).find());
+    }
+
+    /**
+     * Checks whether any alternative occurs in a longer string, using the compiled literal matcher.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void multiLiteralContains(MultiPatternData data, Blackhole blackhole) {
+        blackhole.consume(data.matcher.containsAny(data.containsInput));
+    }
 }
@@ -1,5 +1,6 @@
 package strings.string_concat_performance;
 
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
@@ -11,9 +12,13 @@ public class BenchmarkRunner {
     public static void main(String[] args) throws Exception {
         Options opt = new OptionsBuilder()
                 .include(StringConcat.class.getSimpleName())
+                .include(LargeConcat.class.getSimpleName())
+                .include(DirectEncode.class.getSimpleName())
+                .include(JoinConcat.class.getSimpleName())
                 .forks(1)
+                .addProfiler(GCProfiler.class)
                 .build();
 
         new Runner(opt).run();
     }
-}
\ No newline at end of file
+}
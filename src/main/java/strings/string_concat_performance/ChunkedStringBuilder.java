@@ -0,0 +1,209 @@
+package strings.string_concat_performance;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * A string builder for very large results that never copies what has been appended.
+ * <p>
+ * Appended Strings are kept by reference in fixed-size blocks, so an append is O(1) and growing never copies
+ * characters, only (rarely) the small array of block references. Other CharSequences are copied once, since they may
+ * change after the call; single chars and numbers are collected in a small buffer first. The result can be streamed
+ * to a Writer or a WritableByteChannel without ever building the full String; toString builds it with one copy.
+ */
+public final class ChunkedStringBuilder implements Appendable {
+    private static final int BLOCK_SIZE = 4096;
+    private static final int PENDING_SIZE = 256;
+    private static final int ENCODE_BUFFER_SIZE = 8192;
+
+    private String[][] blocks = new String[16][];
+    private int segments;
+    private long length;
+    private final char[] pending = new char[PENDING_SIZE];
+    private int pendingLength;
+
+    public ChunkedStringBuilder append(String value) {
+        String segment = String.valueOf(value);
+        if (segment.isEmpty()) {
+            return this;
+        }
+        flushPending();
+        addSegment(segment);
+        return this;
+    }
+
+    @Override
+    public ChunkedStringBuilder append(CharSequence value) {
+        return append(String.valueOf(value));
+    }
+
+    @Override
+    public ChunkedStringBuilder append(CharSequence value, int start, int end) {
+        // Only the range is copied; Appendable treats null as "null".
+        CharSequence chars = value == null ? "null" : value;
+        return append(chars.subSequence(start, end).toString());
+    }
+
+    @Override
+    public ChunkedStringBuilder append(char value) {
+        if (pendingLength == PENDING_SIZE) {
+            flushPending();
+        }
+        pending[pendingLength++] = value;
+        length++;
+        return this;
+    }
+
+    public ChunkedStringBuilder append(int value) {
+        return appendPending(Integer.toString(value));
+    }
+
+    public ChunkedStringBuilder append(long value) {
+        return appendPending(Long.toString(value));
+    }
+
+    /**
+     * @return Number of chars appended; may exceed what a single String can hold.
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Writes every segment to the writer in order, without building the full String.
+     */
+    public void writeTo(Writer writer) throws IOException {
+        for (int i = 0; i < segments; i++) {
+            writer.write(segment(i));
+        }
+        writer.write(pending, 0, pendingLength);
+    }
+
+    /**
+     * Encodes the chars into the channel through small reusable buffers, without building the full String or its
+     * full byte array. Surrogate pairs split across appends are encoded as one character.
+     */
+    public void writeTo(WritableByteChannel channel, Charset charset) throws IOException {
+        // Replace malformed input like String.getBytes does, rather than failing halfway through the output.
+        CharsetEncoder encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.allocate(ENCODE_BUFFER_SIZE);
+        ByteBuffer bytes = ByteBuffer.allocate(ENCODE_BUFFER_SIZE * 3);
+        for (int i = 0; i < segments; i++) {
+            String segment = segment(i);
+            for (int offset = 0; offset < segment.length(); ) {
+                int count = Math.min(chars.remaining(), segment.length() - offset);
+                segment.getChars(offset, offset + count, chars.array(), chars.position());
+                chars.position(chars.position() + count);
+                offset += count;
+                if (!chars.hasRemaining()) {
+                    encode(encoder, chars, bytes, channel, false);
+                }
+            }
+        }
+        for (int offset = 0; offset < pendingLength; ) {
+            int count = Math.min(chars.remaining(), pendingLength - offset);
+            chars.put(pending, offset, count);
+            offset += count;
+            if (!chars.hasRemaining()) {
+                encode(encoder, chars, bytes, channel, false);
+            }
+        }
+        encode(encoder, chars, bytes, channel, true);
+        while (encoder.flush(bytes) == CoderResult.OVERFLOW) {
+            drain(bytes, channel);
+        }
+        drain(bytes, channel);
+    }
+
+    /**
+     * @return The full String, built with a single copy of every segment.
+     */
+    @Override
+    public String toString() {
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new OutOfMemoryError("Too long for a String: " + length);
+        }
+        char[] chars = new char[(int) length];
+        int position = 0;
+        for (int i = 0; i < segments; i++) {
+            String segment = segment(i);
+            segment.getChars(0, segment.length(), chars, position);
+            position += segment.length();
+        }
+        System.arraycopy(pending, 0, chars, position, pendingLength);
+        return new String(chars);
+    }
+
+    private ChunkedStringBuilder appendPending(String digits) {
+        if (pendingLength + digits.length() > PENDING_SIZE) {
+            flushPending();
+        }
+        digits.getChars(0, digits.length(), pending, pendingLength);
+        pendingLength += digits.length();
+        length += digits.length();
+        return this;
+    }
+
+    private void flushPending() {
+        if (pendingLength > 0) {
+            // The chars are already counted in length.
+            length -= pendingLength;
+            addSegment(new String(pending, 0, pendingLength));
+            pendingLength = 0;
+        }
+    }
+
+    private void addSegment(String segment) {
+        int block = segments / BLOCK_SIZE;
+        if (block == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blocks.length * 2);
+        }
+        if (blocks[block] == null) {
+            blocks[block] = new String[BLOCK_SIZE];
+        }
+        blocks[block][segments % BLOCK_SIZE] = segment;
+        segments++;
+        length += segment.length();
+    }
+
+    private String segment(int index) {
+        return blocks[index / BLOCK_SIZE][index % BLOCK_SIZE];
+    }
+
+    /**
+     * Encodes the filled part of chars, then compacts it; a trailing high surrogate stays behind for the next call.
+     */
+    private static void encode(CharsetEncoder encoder, CharBuffer chars, ByteBuffer bytes,
+            WritableByteChannel channel, boolean endOfInput) throws IOException {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                drain(bytes, channel);
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        chars.compact();
+    }
+
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
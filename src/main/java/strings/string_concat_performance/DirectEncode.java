@@ -0,0 +1,125 @@
+package strings.string_concat_performance;
+
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A comparison of methods for turning concatenated strings and numbers into UTF-8 bytes, as when writing a message to
+ * a socket or file.
+ * <p>
+ * Notes:
+ * Utf8ByteEncoder appends straight into a reusable byte buffer, while building a String and calling getBytes
+ * allocates the builder's array, the String and the byte[] for every message.
+ * Each message is every piece followed by '=' and a number. Run with the GC profiler (as BenchmarkRunner does) and
+ * compare gc.alloc.rate.norm for bytes allocated per operation.
+ *
+ * @author Christian Wesseler
+ */
+public class DirectEncode {
+    private static final int STRING_SIZE = 3;
+
+    /**
+     * Configures and generates varying numbers of randomly generated strings, ASCII only or from the whole of Unicode.
+     */
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"10", "100", "1000"})
+        private int numElements;
+
+        @Param({"ascii", "unicode"})
+        private String text;
+
+        List<String> dataList;
+        int[] numbers;
+
+        /**
+         * Generates a list of random strings and numbers.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            dataList = new ArrayList<>(numElements);
+            numbers = new int[numElements];
+            for (int i = 0; i < numElements; i++) {
+                dataList.add("ascii".equals(text)
+                        ? RandomStringUtils.randomAlphanumeric(STRING_SIZE)
+                        : RandomStringUtils.random(STRING_SIZE));
+                numbers[i] = i * 7919;
+            }
+        }
+    }
+
+    /**
+     * An encoder kept per thread, as it would be per connection.
+     */
+    @State(Scope.Thread)
+    public static class EncoderData {
+        Utf8ByteEncoder encoder = new Utf8ByteEncoder(1024);
+    }
+
+    /**
+     * Concatenates into a String, then encodes it with getBytes.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void concatThenGetBytes(Data data, Blackhole blackhole) {
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < data.numElements; i++) {
+            message.append(data.dataList.get(i)).append('=').append(data.numbers[i]);
+        }
+        blackhole.consume(message.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Concatenates into a StringBuilder, then encodes the builder's chars without creating a String.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void concatThenCharsetEncode(Data data, Blackhole blackhole) {
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < data.numElements; i++) {
+            message.append(data.dataList.get(i)).append('=').append(data.numbers[i]);
+        }
+        blackhole.consume(StandardCharsets.UTF_8.encode(CharBuffer.wrap(message)));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param encoderData The current thread's reusable encoder.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void directEncode(Data data, EncoderData encoderData, Blackhole blackhole) {
+        Utf8ByteEncoder encoder = encoderData.encoder.reset();
+        for (int i = 0; i < data.numElements; i++) {
+            encoder.append(data.dataList.get(i)).append('=').append(data.numbers[i]);
+        }
+        blackhole.consume(encoder.buffer());
+    }
+}
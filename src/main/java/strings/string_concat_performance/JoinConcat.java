@@ -0,0 +1,208 @@
+package strings.string_concat_performance;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A comparison of methods for joining a list of strings with a delimiter, and of methods for formatting a message
+ * from a few values.
+ * <p>
+ * Notes:
+ * Collectors.joining adds a stream on top of a StringJoiner; its parallel variant merges partial joiners, so
+ * compare it per list size. String.format and MessageFormat parse their pattern on every
+ * call, while + (indy concat) and TemplateFormatter prepare it once. Run with the GC profiler (as BenchmarkRunner
+ * does) to compare allocation per operation.
+ *
+ * @author Christian Wesseler
+ */
+public class JoinConcat {
+    private static final int STRING_SIZE = 3;
+    private static final String DELIMITER = ", ";
+    private static final TemplateFormatter TEMPLATE = TemplateFormatter.compile("user {} has {} items in {}");
+
+    /**
+     * Configures and generates varying numbers of randomly generated strings.
+     */
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"1", "10", "100", "1000", "100000", "1000000"})
+        private int numElements;
+
+        List<String> dataList;
+
+        /**
+         * Generates a list of random strings.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            dataList = new ArrayList<>(numElements);
+            for (int i = 0; i < numElements; i++) {
+                dataList.add(RandomStringUtils.random(STRING_SIZE));
+            }
+        }
+    }
+
+    /**
+     * The values of one formatted message. A precompiled MessageFormat isn't thread-safe, so it is kept per thread.
+     */
+    @State(Scope.Thread)
+    public static class MessageData {
+        String user = RandomStringUtils.randomAlphabetic(8);
+        int count = 42;
+        String location = RandomStringUtils.randomAlphabetic(6);
+        MessageFormat messageFormat = new MessageFormat("user {0} has {1} items in {2}");
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void stringJoin(Data data, Blackhole blackhole) {
+        blackhole.consume(String.join(DELIMITER, data.dataList));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void stringJoiner(Data data, Blackhole blackhole) {
+        StringJoiner joiner = new StringJoiner(DELIMITER);
+        for (String entry : data.dataList) {
+            joiner.add(entry);
+        }
+        blackhole.consume(joiner.toString());
+    }
+
+    /**
+     * Joins with a StringBuilder, adding the delimiter by hand.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void stringBuilderJoin(Data data, Blackhole blackhole) {
+        StringBuilder testString = new StringBuilder();
+        for (String entry : data.dataList) {
+            if (testString.length() > 0) {
+                testString.append(DELIMITER);
+            }
+            testString.append(entry);
+        }
+        blackhole.consume(testString.toString());
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void collectorsJoining(Data data, Blackhole blackhole) {
+        blackhole.consume(data.dataList.stream().collect(Collectors.joining(DELIMITER)));
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void parallelCollectorsJoining(Data data, Blackhole blackhole) {
+        blackhole.consume(data.dataList.parallelStream().collect(Collectors.joining(DELIMITER)));
+    }
+
+    /**
+     * Formats with +, which javac compiles to an invokedynamic StringConcatFactory call.
+     *
+     * @param message The values for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void indyConcat(MessageData message, Blackhole blackhole) {
+        blackhole.consume("user " + message.user + " has " + message.count + " items in " + message.location);
+    }
+
+    /**
+     * @param message The values for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void stringFormat(MessageData message, Blackhole blackhole) {
+        blackhole.consume(String.format("user %s has %d items in %s", message.user, message.count, message.location));
+    }
+
+    /**
+     * Formats with the static MessageFormat.format, which parses the pattern on every call.
+     *
+     * @param message The values for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void messageFormat(MessageData message, Blackhole blackhole) {
+        blackhole.consume(MessageFormat.format("user {0} has {1} items in {2}", message.user, message.count,
+                message.location));
+    }
+
+    /**
+     * @param message The values for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void messageFormatPrecompiled(MessageData message, Blackhole blackhole) {
+        blackhole.consume(message.messageFormat.format(new Object[]{message.user, message.count, message.location}));
+    }
+
+    /**
+     * @param message The values for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void templateFormat(MessageData message, Blackhole blackhole) {
+        blackhole.consume(TEMPLATE.format(message.user, message.count, message.location));
+    }
+}
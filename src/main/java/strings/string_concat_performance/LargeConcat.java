@@ -0,0 +1,251 @@
+package strings.string_concat_performance;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A comparison of methods for concatenating very many strings, and for writing the result out.
+ * <p>
+ * Notes:
+ * ChunkedStringBuilder writes to a Writer or channel without ever holding the full String or its encoded bytes,
+ * while a StringBuilder grows one array that is copied on every resize unless presized.
+ * Extends StringConcat to 10,000,000 pieces. String += is left out, as it is quadratic in the number of pieces. The
+ * Writer and channel read every char or byte they get into a checksum for the Blackhole, so writing costs the same
+ * reads on every path while building and encoding make the difference.
+ *
+ * @author Christian Wesseler
+ */
+public class LargeConcat {
+    private static final int STRING_SIZE = 3;
+
+    /**
+     * Configures and generates varying numbers of randomly generated strings, and the sinks to write them to.
+     */
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"1000", "100000", "10000000"})
+        private int numElements;
+
+        List<String> dataList;
+        Writer writer;
+        WritableByteChannel channel;
+
+        /**
+         * Generates a list of random strings and the sinks that feed what they get to the blackhole.
+         */
+        @Setup(Level.Trial)
+        public void setUp(Blackhole blackhole) {
+            dataList = new ArrayList<>(numElements);
+            for (int i = 0; i < numElements; i++) {
+                dataList.add(RandomStringUtils.random(STRING_SIZE));
+            }
+            writer = new BlackholeWriter(blackhole);
+            channel = new BlackholeChannel(blackhole);
+        }
+    }
+
+    /**
+     * A Writer that reads every char it gets into a checksum and passes that to the blackhole.
+     */
+    private static final class BlackholeWriter extends Writer {
+        private final Blackhole blackhole;
+
+        BlackholeWriter(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            int checksum = 0;
+            for (int i = offset; i < offset + length; i++) {
+                checksum = 31 * checksum + chars[i];
+            }
+            blackhole.consume(checksum);
+        }
+
+        // Overridden so that a large String is read in place instead of being copied into a char[] first.
+        @Override
+        public void write(String value, int offset, int length) {
+            int checksum = 0;
+            for (int i = offset; i < offset + length; i++) {
+                checksum = 31 * checksum + value.charAt(i);
+            }
+            blackhole.consume(checksum);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * A channel that reads every byte it gets into a checksum and passes that to the blackhole.
+     */
+    private static final class BlackholeChannel implements WritableByteChannel {
+        private final Blackhole blackhole;
+
+        BlackholeChannel(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public int write(ByteBuffer source) {
+            int length = source.remaining();
+            int checksum = 0;
+            while (source.hasRemaining()) {
+                checksum = 31 * checksum + source.get();
+            }
+            blackhole.consume(checksum);
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void stringBuilderAppend(Data data, Blackhole blackhole) {
+        StringBuilder testString = new StringBuilder();
+        for (String entry : data.dataList) {
+            testString.append(entry);
+        }
+        blackhole.consume(testString.toString());
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void stringBuilderAppendWithSize(Data data, Blackhole blackhole) {
+        StringBuilder testString = new StringBuilder(STRING_SIZE * data.numElements);
+        for (String entry : data.dataList) {
+            testString.append(entry);
+        }
+        blackhole.consume(testString.toString());
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void chunkedBuilderAppend(Data data, Blackhole blackhole) {
+        ChunkedStringBuilder testString = new ChunkedStringBuilder();
+        for (String entry : data.dataList) {
+            testString.append(entry);
+        }
+        blackhole.consume(testString.toString());
+    }
+
+    /**
+     * Builds a String, then writes it to a Writer.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void stringBuilderToWriter(Data data, Blackhole blackhole) throws IOException {
+        StringBuilder testString = new StringBuilder(STRING_SIZE * data.numElements);
+        for (String entry : data.dataList) {
+            testString.append(entry);
+        }
+        data.writer.write(testString.toString());
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void chunkedBuilderToWriter(Data data, Blackhole blackhole) throws IOException {
+        ChunkedStringBuilder testString = new ChunkedStringBuilder();
+        for (String entry : data.dataList) {
+            testString.append(entry);
+        }
+        testString.writeTo(data.writer);
+    }
+
+    /**
+     * Builds a String, encodes it to UTF-8, then writes the bytes to a channel.
+     *
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void stringBuilderToChannel(Data data, Blackhole blackhole) throws IOException {
+        StringBuilder testString = new StringBuilder(STRING_SIZE * data.numElements);
+        for (String entry : data.dataList) {
+            testString.append(entry);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(testString.toString().getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            data.channel.write(bytes);
+        }
+    }
+
+    /**
+     * @param data The provided state for the current benchmark run.
+     * @param blackhole The method's consumer to prevent automatic optimization.
+     */
+    @Benchmark
+    @Warmup(iterations = 5)
+    @BenchmarkMode(Mode.Throughput)
+    @SuppressWarnings("all")
+    public static void chunkedBuilderToChannel(Data data, Blackhole blackhole) throws IOException {
+        ChunkedStringBuilder testString = new ChunkedStringBuilder();
+        for (String entry : data.dataList) {
+            testString.append(entry);
+        }
+        testString.writeTo(data.channel, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package strings.string_concat_performance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message template with {} placeholders, parsed once and then formatted many times.
+ * <p>
+ * String.format and MessageFormat.format parse their pattern on every call; this formatter splits the template into
+ * its literal parts up front, so formatting is only appends into a builder sized from the literals.
+ * <p>
+ * As in SLF4J, a backslash escapes a placeholder: \{} stands for a literal {}, and \\{} for a literal backslash
+ * followed by a placeholder. Backslashes anywhere else are kept as they are.
+ */
+public final class TemplateFormatter {
+    private static final String PLACEHOLDER = "{}";
+    private static final char ESCAPE = '\\';
+    // Room reserved per argument when presizing the builder.
+    private static final int ARGUMENT_SIZE_HINT = 8;
+
+    private final String[] literals;
+    private final int literalLength;
+
+    private TemplateFormatter(String[] literals) {
+        this.literals = literals;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * @param template Text with a {} placeholder for each argument, ie "user {} logged in from {}".
+     */
+    public static TemplateFormatter compile(String template) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int from = 0;
+        int index;
+        while ((index = template.indexOf(PLACEHOLDER, from)) >= 0) {
+            // The char before from is the '}' of the previous placeholder, so these never look behind it.
+            boolean escaped = index > 0 && template.charAt(index - 1) == ESCAPE;
+            boolean escapeEscaped = escaped && index > 1 && template.charAt(index - 2) == ESCAPE;
+            if (escaped && !escapeEscaped) {
+                literal.append(template, from, index - 1).append(PLACEHOLDER);
+            } else {
+                literals.add(literal.append(template, from, escaped ? index - 1 : index).toString());
+                literal.setLength(0);
+            }
+            from = index + PLACEHOLDER.length();
+        }
+        literals.add(literal.append(template, from, template.length()).toString());
+        return new TemplateFormatter(literals.toArray(new String[0]));
+    }
+
+    public int argumentCount() {
+        return literals.length - 1;
+    }
+
+    /**
+     * @return The template with each placeholder replaced by String.valueOf of the matching argument.
+     */
+    public String format(Object... arguments) {
+        return formatTo(new StringBuilder(literalLength + arguments.length * ARGUMENT_SIZE_HINT), arguments).toString();
+    }
+
+    /**
+     * Appends the formatted template to the builder.
+     *
+     * @return The builder.
+     */
+    public StringBuilder formatTo(StringBuilder builder, Object... arguments) {
+        if (arguments.length != argumentCount()) {
+            throw new IllegalArgumentException("Expected " + argumentCount() + " arguments, got " + arguments.length);
+        }
+        builder.append(literals[0]);
+        for (int i = 0; i < arguments.length; i++) {
+            builder.append(arguments[i]).append(literals[i + 1]);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,167 @@
+package strings.string_concat_performance;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Concatenates text and numbers straight into UTF-8 bytes in a reusable buffer, without building a String first.
+ * <p>
+ * Runs of ASCII chars are copied one byte per char in a loop without any other checks; other chars take the general
+ * UTF-8 path. Numbers are written as ASCII digits directly. Malformed surrogates become '?', as with String.getBytes.
+ * After reset() the same array is reused, so a warmed-up encoder doesn't allocate. The encoded size is limited to
+ * what a byte[] can hold; appending beyond that throws an IllegalStateException.
+ */
+public final class Utf8ByteEncoder {
+    private static final byte REPLACEMENT = '?';
+    // Long.MIN_VALUE is the longest number: a sign and 19 digits.
+    private static final int MAX_LONG_CHARS = 20;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private byte[] bytes;
+    private ByteBuffer view;
+    private int size;
+
+    public Utf8ByteEncoder(int initialCapacity) {
+        bytes = new byte[Math.max(16, initialCapacity)];
+        view = ByteBuffer.wrap(bytes);
+    }
+
+    public Utf8ByteEncoder append(CharSequence value) {
+        if (value == null) {
+            return append("null");
+        }
+        int length = value.length();
+        // Room for the whole value as ASCII; the non-ASCII path below makes room for its extra bytes.
+        ensureCapacity((long) size + length);
+        byte[] target = bytes;
+        int position = size;
+        int i = 0;
+        while (i < length) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                do {
+                    target[position++] = (byte) c;
+                } while (++i < length && (c = value.charAt(i)) < 0x80);
+                continue;
+            }
+            // Up to four bytes for this char, or a surrogate pair, plus one per remaining char.
+            if (position + 3L + (length - i) > target.length) {
+                ensureCapacity(position + 3L + (length - i));
+                target = bytes;
+            }
+            i++;
+            if (c < 0x800) {
+                target[position++] = (byte) (0xC0 | (c >> 6));
+                target[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i < length && Character.isLowSurrogate(value.charAt(i))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(i++));
+                    target[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    target[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    target[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    target[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    target[position++] = REPLACEMENT;
+                }
+            } else {
+                target[position++] = (byte) (0xE0 | (c >> 12));
+                target[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                target[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        size = position;
+        return this;
+    }
+
+    /**
+     * Appends a single char; a surrogate on its own can't be encoded and becomes '?'.
+     */
+    public Utf8ByteEncoder append(char value) {
+        if (value < 0x80) {
+            ensureCapacity((long) size + 1);
+            bytes[size++] = (byte) value;
+            return this;
+        }
+        return append(String.valueOf(value));
+    }
+
+    public Utf8ByteEncoder append(int value) {
+        return append((long) value);
+    }
+
+    public Utf8ByteEncoder append(long value) {
+        ensureCapacity((long) size + MAX_LONG_CHARS);
+        if (value == Long.MIN_VALUE) {
+            return append("-9223372036854775808");
+        }
+        if (value < 0) {
+            bytes[size++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long remaining = value / 10; remaining != 0; remaining /= 10) {
+            digits++;
+        }
+        int position = size + digits;
+        do {
+            bytes[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        size += digits;
+        return this;
+    }
+
+    public Utf8ByteEncoder append(boolean value) {
+        return append(value ? "true" : "false");
+    }
+
+    /**
+     * Empties the encoder, keeping its buffer for reuse.
+     */
+    public Utf8ByteEncoder reset() {
+        size = 0;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The encoded bytes, as a buffer positioned at 0 with the limit at size(). The buffer is shared and only
+     * valid until the next append or reset.
+     */
+    public ByteBuffer buffer() {
+        view.clear().limit(size);
+        return view;
+    }
+
+    /**
+     * @return A copy of the encoded bytes.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = buffer();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Grows the buffer to at least the capacity, copying the whole array so that bytes past size() survive too.
+     */
+    private void ensureCapacity(long capacity) {
+        if (capacity > bytes.length) {
+            if (capacity > MAX_ARRAY_SIZE) {
+                throw new IllegalStateException("Encoded size exceeds " + MAX_ARRAY_SIZE + " bytes");
+            }
+            bytes = Arrays.copyOf(bytes, (int) Math.min(MAX_ARRAY_SIZE, Math.max(capacity, bytes.length * 2L)));
+            view = ByteBuffer.wrap(bytes);
+        }
+    }
+}